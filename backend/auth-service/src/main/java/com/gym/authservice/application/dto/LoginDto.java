@@ -0,0 +1,12 @@
+package com.gym.authservice.application.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class LoginDto {
+
+    @NotBlank
+    public String username;
+
+    @NotBlank
+    public String password;
+}
@@ -0,0 +1,9 @@
+package com.gym.authservice.application.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class RefreshTokenDto {
+
+    @NotBlank
+    public String refreshToken;
+}
@@ -0,0 +1,20 @@
+package com.gym.authservice.application.dto;
+
+/**
+ * Tokens issued by /auth/login and /auth/refresh.
+ * Send the access token as "Authorization: Bearer <accessToken>".
+ */
+public class TokenResponseDto {
+
+    public final String accessToken;
+    public final String refreshToken;
+    public final String tokenType = "Bearer";
+    /** Access token lifetime in seconds */
+    public final long expiresIn;
+
+    public TokenResponseDto(String accessToken, String refreshToken, long expiresIn) {
+        this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
+    }
+}
@@ -0,0 +1,81 @@
+package com.gym.authservice.application.rest;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.gym.authservice.application.dto.LoginDto;
+import com.gym.authservice.application.dto.RefreshTokenDto;
+import com.gym.authservice.application.dto.TokenResponseDto;
+import com.gym.authservice.infrastructure.security.JwtTokenService;
+import com.gym.authservice.infrastructure.security.RefreshTokenService;
+
+import jakarta.validation.Valid;
+
+/**
+ * Token endpoints: the only place a password is checked (BCrypt), once per login.
+ * Later requests present the access token; /auth/refresh renews it without the password
+ * (each refresh token is accepted once), /auth/jwks.json publishes the keys that verify it.
+ */
+@RestController
+@RequestMapping("/auth")
+public class LoginController {
+
+    private final DaoAuthenticationProvider authenticationProvider;
+    private final JwtTokenService tokenService;
+    private final RefreshTokenService refreshTokenService;
+
+    public LoginController(DaoAuthenticationProvider authenticationProvider,
+                           JwtTokenService tokenService,
+                           RefreshTokenService refreshTokenService) {
+        this.authenticationProvider = authenticationProvider;
+        this.tokenService = tokenService;
+        this.refreshTokenService = refreshTokenService;
+    }
+
+    /**
+     * Exchange username/password for an access and a refresh token (401 on bad credentials)
+     */
+    @PostMapping("/login")
+    public ResponseEntity<TokenResponseDto> login(@Valid @RequestBody LoginDto request) {
+        var authentication = authenticationProvider.authenticate(
+            UsernamePasswordAuthenticationToken.unauthenticated(request.username, request.password));
+
+        UserDetails user = (UserDetails) authentication.getPrincipal();
+        return ResponseEntity.ok(issueTokens(user, refreshTokenService.issue(user)));
+    }
+
+    /**
+     * Exchange a refresh token for new tokens. The presented token is used up and replaced;
+     * presenting it again gets 401 and revokes every refresh token of that login.
+     * Reloads the user, so role changes and deleted accounts take effect here.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<TokenResponseDto> refresh(@Valid @RequestBody RefreshTokenDto request) {
+        var rotation = refreshTokenService.rotate(request.refreshToken);
+
+        return ResponseEntity.ok(issueTokens(rotation.user(), rotation.refreshToken()));
+    }
+
+    /**
+     * Public keys for verifying access tokens (fetched and cached by the other services)
+     */
+    @GetMapping(value = "/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> jwks() {
+        return ResponseEntity.ok(tokenService.getPublicKeysJson());
+    }
+
+    private TokenResponseDto issueTokens(UserDetails user, String refreshToken) {
+        return new TokenResponseDto(
+            tokenService.issueAccessToken(user),
+            refreshToken,
+            tokenService.getAccessTokenTtl().toSeconds());
+    }
+}
@@ -1,28 +1,71 @@
 package com.gym.authservice.domain;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.gym.authservice.infrastructure.persistence.UserJpaRepository;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Loads users for login and token refresh, through a bounded in-process cache
+ *
+ * Entries expire after app.user-cache.ttl-ms and are evicted as soon as the user is
+ * written (UserCacheEvictionListener), so a new password or role applies at the next login.
+ * Unknown usernames are not cached. Hits and misses are exported as cache_gets_total{cache="users"}.
+ */
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
+
+    public static final String CACHE_NAME = "users";
+
     private final UserJpaRepository userJpaRepository;
-    public CustomUserDetailsService(UserJpaRepository userJpaRepository){
+    private final Cache<String, UserDetails> users;
+
+    public CustomUserDetailsService(UserJpaRepository userJpaRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.user-cache.max-size:10000}") long maxSize,
+                                    @Value("${app.user-cache.ttl-ms:300000}") long ttlMs) {
         this.userJpaRepository = userJpaRepository;
+        this.users = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofMillis(ttlMs))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, CACHE_NAME);
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        System.out.println("-------HERE-------");
-        var user = userJpaRepository.findByUsername(username).orElseThrow(() -> new UsernameNotFoundException("User not found")); 
-        
-        return User.builder()                                                 
-            .username( user.getUsername() )                                                            
+        UserDetails cached = users.get(username, this::loadFromDatabase);
+
+        // A copy per caller: Spring Security may erase the credentials of the instance it is handed
+        return User.withUserDetails(cached).build();
+    }
+
+    /**
+     * Drop a user's cached entry (called whenever the user row is written)
+     */
+    public void evict(String username) {
+        users.invalidate(username);
+    }
+
+    private UserDetails loadFromDatabase(String username) {
+        var user = userJpaRepository.findByUsername(username).orElseThrow(() -> new UsernameNotFoundException("User not found"));
+
+        return User.builder()
+            .username( user.getUsername() )
             .password( user.getPassword() )
             .authorities( "ROLE_" + user.getRole() )
             .build();
-    }}
+    }
+}
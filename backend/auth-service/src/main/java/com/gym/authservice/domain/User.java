@@ -4,6 +4,7 @@ import com.gym.authservice.domain.enums.Role;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -11,6 +12,7 @@ import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserCacheEvictionListener.class)
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -36,4 +38,8 @@ public class User {
     public String getUsername() { return username; }
     public String getPassword() { return password; }
     public Role getRole() { return role; }
+
+    // Written back by dirty checking, which fires UserCacheEvictionListener
+    public void changePassword(String encodedPassword) { this.password = encodedPassword; }
+    public void changeRole(Role role) { this.role = role; }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.gym.authservice.domain;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA entity listener on User: any insert, update (password, role) or delete of a user
+ * evicts their cached UserDetails, whichever code path wrote it.
+ *
+ * Only entity writes are seen: a bulk JPQL or native UPDATE/DELETE of users skips the
+ * callbacks, so change users through the entity (User.changePassword, User.changeRole).
+ *
+ * Evicts again after commit, so a login racing the transaction cannot re-cache the old row.
+ * Hibernate obtains this listener from Spring; the service is looked up lazily because
+ * listeners are created while the EntityManagerFactory (which the service needs) is being built.
+ */
+@Component
+public class UserCacheEvictionListener {
+
+    private final ObjectProvider<CustomUserDetailsService> userDetailsService;
+
+    public UserCacheEvictionListener(ObjectProvider<CustomUserDetailsService> userDetailsService) {
+        this.userDetailsService = userDetailsService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void userChanged(User user) {
+        String username = user.getUsername();
+        evict(username);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(username);
+                }
+            });
+        }
+    }
+
+    private void evict(String username) {
+        userDetailsService.ifAvailable(service -> service.evict(username));
+    }
+}
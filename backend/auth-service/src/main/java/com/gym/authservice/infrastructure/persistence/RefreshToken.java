@@ -0,0 +1,66 @@
+package com.gym.authservice.infrastructure.persistence;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * Refresh token ledger: one row per refresh token issued (token id = the JWT's "jti")
+ *
+ * Every token of one login shares a family id. A token is exchanged at most once
+ * (usedAt set); presenting a used or revoked token revokes its whole family.
+ */
+@Entity
+@Table(name = "refresh_tokens")
+public class RefreshToken {
+
+    @Id
+    @Column(name = "token_id", length = 36)
+    private String tokenId;
+
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "used_at")
+    private Instant usedAt;
+
+    @Column(nullable = false)
+    private boolean revoked;
+
+    // JPA requires no-arg constructor
+    protected RefreshToken() {
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public String getFamilyId() {
+        return familyId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public Instant getUsedAt() {
+        return usedAt;
+    }
+
+    public boolean isRevoked() {
+        return revoked;
+    }
+}
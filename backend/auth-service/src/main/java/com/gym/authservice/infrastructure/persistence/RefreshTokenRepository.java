@@ -0,0 +1,43 @@
+package com.gym.authservice.infrastructure.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Spring Data JPA Repository for the refresh token ledger
+ *
+ * Single UPDATE statements: of two concurrent exchanges of the same token, exactly one marks it used.
+ */
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    @Modifying
+    @Query(value = "INSERT INTO {h-schema}refresh_tokens (token_id, family_id, username, expires_at, revoked) " +
+                   "VALUES (:tokenId, :familyId, :username, :expiresAt, false)",
+           nativeQuery = true)
+    void insert(@Param("tokenId") String tokenId,
+                @Param("familyId") String familyId,
+                @Param("username") String username,
+                @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * @return 1 if the token was unused, unrevoked and unexpired and is used now, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.usedAt = :now " +
+           "WHERE t.tokenId = :tokenId AND t.usedAt IS NULL AND t.revoked = false AND t.expiresAt > :now")
+    int markUsed(@Param("tokenId") String tokenId, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revoked = true WHERE t.familyId = :familyId AND t.revoked = false")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :cutoff")
+    int deleteExpiredBefore(@Param("cutoff") Instant cutoff);
+}
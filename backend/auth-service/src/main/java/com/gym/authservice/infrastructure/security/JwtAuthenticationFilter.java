@@ -0,0 +1,53 @@
+package com.gym.authservice.infrastructure.security;
+
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Infrastructure Layer: Authenticates requests carrying "Authorization: Bearer <access token>"
+ *
+ * The principal and its roles come straight from the verified token: a signature check
+ * per request instead of a user lookup plus BCrypt. Requests without a valid token
+ * stay anonymous and are answered 401 by protected endpoints.
+ *
+ * Not a @Component: registered only in the security filter chain (SecurityConfig).
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtTokenService tokenService;
+
+    public JwtAuthenticationFilter(JwtTokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            try {
+                Claims claims = tokenService.verify(header.substring(BEARER_PREFIX.length()), JwtTokenService.ACCESS_TYPE);
+                var authorities = JwtTokenService.roles(claims).stream()
+                        .map(SimpleGrantedAuthority::new)
+                        .toList();
+                SecurityContextHolder.getContext().setAuthentication(
+                        UsernamePasswordAuthenticationToken.authenticated(claims.getSubject(), null, authorities));
+            } catch (JwtTokenService.InvalidTokenException e) {
+                SecurityContextHolder.clearContext();
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
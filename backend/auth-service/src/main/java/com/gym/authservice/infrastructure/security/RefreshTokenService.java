@@ -0,0 +1,98 @@
+package com.gym.authservice.infrastructure.security;
+
+import com.gym.authservice.domain.CustomUserDetailsService;
+import com.gym.authservice.infrastructure.persistence.RefreshTokenRepository;
+import com.gym.authservice.infrastructure.security.JwtTokenService.InvalidTokenException;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Infrastructure Layer: One-time refresh tokens, tracked in the refresh_tokens ledger
+ *
+ * - Login starts a family: every refresh token issued from it shares the family id
+ * - POST /auth/refresh marks the presented token used and issues its successor in the same family
+ * - A token presented again (or one of a revoked family) means it leaked: the whole family is
+ *   revoked, so neither the thief nor the owner can refresh any more and the owner must log in again
+ *
+ * Expired rows are purged on a schedule (app.jwt.refresh-purge-interval-ms).
+ */
+@Component
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtTokenService tokenService;
+    private final CustomUserDetailsService userDetailsService;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               JwtTokenService tokenService,
+                               CustomUserDetailsService userDetailsService) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.tokenService = tokenService;
+        this.userDetailsService = userDetailsService;
+    }
+
+    /**
+     * First refresh token of a login (a new family)
+     */
+    @Transactional
+    public String issue(UserDetails user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchange a refresh token for its successor. Reloads the user, so role changes
+     * and deleted accounts take effect here.
+     *
+     * @throws InvalidTokenException if the token does not verify, was already used or its family was revoked
+     */
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public Rotation rotate(String refreshToken) {
+        Claims claims = tokenService.verify(refreshToken, JwtTokenService.REFRESH_TYPE);
+        String tokenId = claims.getId();
+        String familyId = claims.get(JwtTokenService.FAMILY_CLAIM, String.class);
+        if (tokenId == null || familyId == null) {
+            throw new InvalidTokenException("Refresh token has no id");
+        }
+
+        if (refreshTokenRepository.markUsed(tokenId, Instant.now()) == 0) {
+            int revoked = refreshTokenRepository.revokeFamily(familyId);
+            log.warn("Refresh token {} of {} already used or revoked, revoked {} token(s) of family {}",
+                    tokenId, claims.getSubject(), revoked, familyId);
+            throw new InvalidTokenException("Refresh token already used or revoked");
+        }
+
+        UserDetails user = userDetailsService.loadUserByUsername(claims.getSubject());
+        return new Rotation(user, issue(user, familyId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int purged = refreshTokenRepository.deleteExpiredBefore(Instant.now());
+        if (purged > 0) {
+            log.debug("Purged {} expired refresh token(s)", purged);
+        }
+    }
+
+    private String issue(UserDetails user, String familyId) {
+        String tokenId = UUID.randomUUID().toString();
+        Instant expiresAt = Instant.now().plus(tokenService.getRefreshTokenTtl());
+        refreshTokenRepository.insert(tokenId, familyId, user.getUsername(), expiresAt);
+        return tokenService.issueRefreshToken(user, tokenId, familyId, expiresAt);
+    }
+
+    /**
+     * The reloaded user and the refresh token that replaces the one presented
+     */
+    public record Rotation(UserDetails user, String refreshToken) {
+    }
+}
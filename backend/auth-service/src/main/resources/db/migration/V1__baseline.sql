@@ -0,0 +1,10 @@
+-- Baseline: the schema as ddl-auto: update left it.
+-- Idempotent, so it also adopts databases that were created by Hibernate.
+
+CREATE TABLE IF NOT EXISTS users (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    -- Role ordinal: 0 = USER, 1 = ADMIN
+    role     SMALLINT     NOT NULL CHECK (role BETWEEN 0 AND 1)
+);
@@ -0,0 +1,16 @@
+-- One row per refresh token issued. POST /auth/refresh accepts each token once; a token
+-- presented again (stolen and replayed) revokes every token of its login (family).
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    token_id   VARCHAR(36)                 PRIMARY KEY,
+    family_id  VARCHAR(36)                 NOT NULL,
+    username   VARCHAR(255)                NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    used_at    TIMESTAMP(6) WITH TIME ZONE,
+    revoked    BOOLEAN                     NOT NULL DEFAULT FALSE
+);
+-- Revocation of a whole family
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family_id
+    ON refresh_tokens (family_id);
+-- Purge of expired rows
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires_at
+    ON refresh_tokens (expires_at);
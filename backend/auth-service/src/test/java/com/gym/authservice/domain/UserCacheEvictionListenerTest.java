@@ -0,0 +1,96 @@
+package com.gym.authservice.domain;
+
+import com.gym.authservice.domain.enums.Role;
+import com.gym.authservice.infrastructure.persistence.UserJpaRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The cached UserDetails follow every write of the user row: with a TTL far longer than the
+ * test, a stale entry could only disappear through UserCacheEvictionListener.
+ */
+@SpringBootTest(properties = {
+        "grpc.server.port=0",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.springframework.security=INFO",
+        "app.user-cache.ttl-ms=3600000"
+})
+class UserCacheEvictionListenerTest {
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private UserJpaRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        POSTGRES.close();
+    }
+
+    @Test
+    void newPasswordAndRoleAreLoadedRightAfterTheChange() {
+        userRepository.save(new User("changed", passwordEncoder.encode("before12!"), Role.USER));
+        UserDetails before = userDetailsService.loadUserByUsername("changed");
+        assertThat(passwordEncoder.matches("before12!", before.getPassword())).isTrue();
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            User user = userRepository.findByUsername("changed").orElseThrow();
+            user.changePassword(passwordEncoder.encode("after123!"));
+            user.changeRole(Role.ADMIN);
+        });
+
+        UserDetails after = userDetailsService.loadUserByUsername("changed");
+        assertThat(passwordEncoder.matches("after123!", after.getPassword())).isTrue();
+        assertThat(after.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN");
+    }
+
+    @Test
+    void deletedUserIsNoLongerLoaded() {
+        User user = userRepository.save(new User("deleted", passwordEncoder.encode("secret12!"), Role.USER));
+        userDetailsService.loadUserByUsername("deleted");
+
+        userRepository.delete(user);
+
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("deleted"))
+                .isInstanceOf(UsernameNotFoundException.class);
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Embedded Postgres did not start", e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.gym.authservice.infrastructure.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gym.authservice.domain.User;
+import com.gym.authservice.domain.enums.Role;
+import com.gym.authservice.infrastructure.persistence.RefreshToken;
+import com.gym.authservice.infrastructure.persistence.RefreshTokenRepository;
+import com.gym.authservice.infrastructure.persistence.UserJpaRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Refresh token rotation through POST /auth/login and /auth/refresh, against the Flyway
+ * schema on embedded Postgres: each refresh token is accepted once, and presenting one
+ * again revokes every token of its login.
+ */
+@SpringBootTest(properties = {
+        "grpc.server.port=0",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.springframework.security=INFO"
+})
+@AutoConfigureMockMvc
+class RefreshTokenServiceTest {
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    private static final String PASSWORD = "secret12!";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserJpaRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JwtTokenService tokenService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        POSTGRES.close();
+    }
+
+    @Test
+    void refreshTokenIsReplacedByItsSuccessor() throws Exception {
+        String first = login(signUp("rotate"));
+
+        String second = refreshToken(refresh(first).andExpect(status().isOk()));
+
+        assertThat(second).isNotEqualTo(first);
+        assertThat(family(second)).isEqualTo(family(first));
+        refresh(second).andExpect(status().isOk());
+    }
+
+    @Test
+    void refreshTokenUsedTwiceRevokesTheWholeFamily() throws Exception {
+        String username = signUp("reuse");
+        String stolen = login(username);
+        String otherLogin = login(username);
+        String successor = refreshToken(refresh(stolen).andExpect(status().isOk()));
+
+        refresh(stolen).andExpect(status().isUnauthorized());
+
+        // The owner's successor went with the family; another login of the user did not
+        refresh(successor).andExpect(status().isUnauthorized());
+        assertThat(refreshTokenRepository.findAll())
+                .filteredOn(token -> token.getFamilyId().equals(family(stolen)))
+                .hasSize(2)
+                .allMatch(RefreshToken::isRevoked);
+        refresh(otherLogin).andExpect(status().isOk());
+    }
+
+    @Test
+    void refreshAfterRevocationIsRejected() throws Exception {
+        String token = login(signUp("revoked"));
+        transactionTemplate.executeWithoutResult(tx -> refreshTokenRepository.revokeFamily(family(token)));
+
+        refresh(token).andExpect(status().isUnauthorized());
+    }
+
+    private String signUp(String username) {
+        userRepository.save(new User(username, passwordEncoder.encode(PASSWORD), Role.USER));
+        return username;
+    }
+
+    private String login(String username) throws Exception {
+        return refreshToken(mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("username", username, "password", PASSWORD))))
+                .andExpect(status().isOk()));
+    }
+
+    private ResultActions refresh(String refreshToken) throws Exception {
+        return mockMvc.perform(post("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("refreshToken", refreshToken))));
+    }
+
+    private String refreshToken(ResultActions response) throws Exception {
+        String body = response.andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("refreshToken").asText();
+    }
+
+    private String family(String refreshToken) {
+        return tokenService.verify(refreshToken, JwtTokenService.REFRESH_TYPE)
+                .get(JwtTokenService.FAMILY_CLAIM, String.class);
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Embedded Postgres did not start", e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.gym.benchmarks;
+
+import com.gym.shared.events.BookingBatchCreatedEvent;
+import com.gym.shared.events.BookingCreatedEvent;
+import com.gym.shared.events.BookingEventCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booking events on the wire, JSON vs protobuf, with the codecs exactly as both RedisConfig classes
+ * build them: Booking Service encodes into the outbox, Class Service decodes from the stream.
+ * Payload sizes are printed once per encoding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BookingEventEncodingBenchmark {
+
+    private static final int GROUP_SIZE = 50;
+
+    @Param({"json", "protobuf"})
+    private String encoding;
+
+    private BookingEventCodec producerCodec;
+    private BookingEventCodec consumerCodec;
+    private BookingCreatedEvent event;
+    private BookingBatchCreatedEvent batchEvent;
+    private byte[] payload;
+    private byte[] batchPayload;
+
+    @Setup
+    public void setUp() {
+        com.gym.classservice.infrastructure.redis.RedisConfig consumerConfig =
+                new com.gym.classservice.infrastructure.redis.RedisConfig();
+        producerCodec = new com.gym.bookingservice.infrastructure.redis.RedisConfig().bookingEventCodec(encoding);
+        consumerCodec = "protobuf".equals(encoding)
+                ? consumerConfig.protobufBookingEventCodec()
+                : consumerConfig.jsonBookingEventCodec();
+
+        Map<String, String> traceContext =
+                Map.of("traceparent", "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01");
+        event = new BookingCreatedEvent(42L, 1_000_001L, "alice");
+        event.setTraceContext(traceContext);
+
+        List<Long> bookingIds = new ArrayList<>(GROUP_SIZE);
+        List<String> userNames = new ArrayList<>(GROUP_SIZE);
+        for (int i = 0; i < GROUP_SIZE; i++) {
+            bookingIds.add(1_000_001L + i);
+            userNames.add("member-" + i);
+        }
+        batchEvent = new BookingBatchCreatedEvent(42L, bookingIds, userNames);
+        batchEvent.setTraceContext(traceContext);
+
+        payload = producerCodec.bookingCreated().serialize(event);
+        batchPayload = producerCodec.bookingBatchCreated().serialize(batchEvent);
+        System.out.printf("%n%s payload: %d bytes, group of %d: %d bytes%n",
+                encoding, payload.length, GROUP_SIZE, batchPayload.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return producerCodec.bookingCreated().serialize(event);
+    }
+
+    @Benchmark
+    public BookingCreatedEvent deserialize() {
+        return consumerCodec.bookingCreated().deserialize(payload);
+    }
+
+    @Benchmark
+    public byte[] serializeGroup() {
+        return producerCodec.bookingBatchCreated().serialize(batchEvent);
+    }
+
+    @Benchmark
+    public List<BookingCreatedEvent> deserializeGroup() {
+        return consumerCodec.bookingBatchCreated().deserialize(batchPayload).toBookingEvents();
+    }
+}
@@ -0,0 +1,52 @@
+package com.gym.benchmarks;
+
+import com.gym.classservice.domain.model.Capacity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Capacity is immutable: every reserve/release allocates a new instance.
+ * gc.alloc.rate.norm shows the cost per transition.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CapacityBenchmark {
+
+    private Capacity capacity;
+
+    @Setup
+    public void setUp() {
+        capacity = Capacity.of(30);
+    }
+
+    @Benchmark
+    public Capacity reserveSpot() {
+        return capacity.reserveSpot();
+    }
+
+    @Benchmark
+    public Capacity releaseSpot() {
+        return capacity.reserveSpot().releaseSpot();
+    }
+
+    /** A full class sold out seat by seat, then emptied again */
+    @Benchmark
+    public Capacity fillAndDrain() {
+        Capacity current = capacity;
+        while (current.hasAvailableSpots()) {
+            current = current.reserveSpot();
+        }
+        while (current.getAvailable() < current.getTotal()) {
+            current = current.releaseSpot();
+        }
+        return current;
+    }
+}
@@ -0,0 +1,59 @@
+package com.gym.benchmarks;
+
+import com.gym.bookingservice.application.dto.BookingResponse;
+import com.gym.bookingservice.domain.model.Booking;
+import com.gym.classservice.application.dto.ClassResponse;
+import com.gym.classservice.domain.model.Capacity;
+import com.gym.classservice.domain.model.GymClass;
+import com.gym.shared.grpc.GetClassResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Domain -> REST DTO mapping of both services
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DtoMappingBenchmark {
+
+    private Booking booking;
+    private GetClassResponse classInfo;
+    private GymClass gymClass;
+
+    @Setup
+    public void setUp() {
+        booking = Entities.withId(Booking.create(42L, "alice"), 1_000_001L);
+        gymClass = Entities.withId(GymClass.create("Spinning", Capacity.of(30)), 42L);
+        classInfo = GetClassResponse.newBuilder()
+                .setId(42L)
+                .setName("Spinning")
+                .setTotalCapacity(30)
+                .setAvailableSpots(12)
+                .setExists(true)
+                .build();
+    }
+
+    @Benchmark
+    public BookingResponse bookingResponse() {
+        return BookingResponse.fromDomain(booking);
+    }
+
+    /** Listing variant, enriched with the batched GetClasses result */
+    @Benchmark
+    public BookingResponse enrichedBookingResponse() {
+        return BookingResponse.fromDomain(booking, classInfo);
+    }
+
+    @Benchmark
+    public ClassResponse classResponse() {
+        return ClassResponse.fromDomain(gymClass);
+    }
+}
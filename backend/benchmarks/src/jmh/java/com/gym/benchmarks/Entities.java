@@ -0,0 +1,23 @@
+package com.gym.benchmarks;
+
+import java.lang.reflect.Field;
+
+/**
+ * Entities get their ids from the database; benchmarks assign them directly
+ */
+public final class Entities {
+
+    private Entities() {
+    }
+
+    public static <T> T withId(T entity, Long id) {
+        try {
+            Field field = entity.getClass().getDeclaredField("id");
+            field.setAccessible(true);
+            field.set(entity, id);
+            return entity;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot assign id to " + entity.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.gym.benchmarks;
+
+import com.gym.classservice.domain.model.Capacity;
+import com.gym.classservice.domain.model.GymClass;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GymClass state transitions (aggregate delegating to its Capacity value object)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GymClassBenchmark {
+
+    private GymClass gymClass;
+
+    @Setup
+    public void setUp() {
+        gymClass = GymClass.create("Spinning", Capacity.of(30));
+    }
+
+    /** One booking and its cancellation: the aggregate ends where it started */
+    @Benchmark
+    public GymClass reserveThenRelease() {
+        gymClass.reserveSpot();
+        gymClass.releaseSpot();
+        return gymClass;
+    }
+
+    @Benchmark
+    public boolean isAvailable() {
+        return gymClass.isAvailable();
+    }
+}
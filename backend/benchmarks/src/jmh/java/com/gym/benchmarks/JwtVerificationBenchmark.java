@@ -0,0 +1,105 @@
+package com.gym.benchmarks;
+
+import com.gym.shared.security.JwtPrincipal;
+import com.gym.shared.security.JwtVerifier;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.RsaPublicJwk;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating a request in Booking/Class Service: an access token shaped like
+ * auth-service's, verified by the shared JwtVerifier against a local JWKS endpoint.
+ * verifyCached is a repeat token, verifySignature what the first sight of a token costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtVerificationBenchmark {
+
+    private static final String ISSUER = "auth-service";
+
+    private HttpServer jwksServer;
+    private JwtVerifier verifier;
+    private JwtParser signatureParser;
+    private String token;
+
+    @Setup
+    public void setUp() throws IOException {
+        KeyPair keyPair = Jwts.SIG.RS256.keyPair().build();
+        RsaPublicJwk jwk = Jwks.builder()
+                .key((RSAPublicKey) keyPair.getPublic())
+                .idFromThumbprint()
+                .build();
+        byte[] jwks = ("{\"keys\":[" + Jwks.json(jwk) + "]}").getBytes(StandardCharsets.UTF_8);
+
+        jwksServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        jwksServer.createContext("/auth/jwks.json", exchange -> {
+            exchange.sendResponseHeaders(200, jwks.length);
+            exchange.getResponseBody().write(jwks);
+            exchange.close();
+        });
+        jwksServer.start();
+
+        verifier = new JwtVerifier(
+                URI.create("http://localhost:" + jwksServer.getAddress().getPort() + "/auth/jwks.json"),
+                ISSUER, Duration.ofHours(1), Duration.ofSeconds(30), 10_000);
+        verifier.start();
+        signatureParser = Jwts.parser()
+                .verifyWith(keyPair.getPublic())
+                .requireIssuer(ISSUER)
+                .build();
+
+        Instant now = Instant.now();
+        token = Jwts.builder()
+                .header().keyId(jwk.getId()).and()
+                .issuer(ISSUER)
+                .subject("alice")
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(Duration.ofHours(1))))
+                .claim("typ", "access")
+                .claim("roles", List.of("ROLE_USER"))
+                .signWith(keyPair.getPrivate(), Jwts.SIG.RS256)
+                .compact();
+        // Fills the claims cache
+        verifier.verify(token);
+    }
+
+    @TearDown
+    public void tearDown() {
+        verifier.close();
+        jwksServer.stop(0);
+    }
+
+    @Benchmark
+    public JwtPrincipal verifyCached() {
+        return verifier.verify(token);
+    }
+
+    @Benchmark
+    public Claims verifySignature() {
+        return signatureParser.parseSignedClaims(token).getPayload();
+    }
+}
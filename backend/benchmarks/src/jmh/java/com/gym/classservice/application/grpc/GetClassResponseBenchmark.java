@@ -0,0 +1,43 @@
+package com.gym.classservice.application.grpc;
+
+import com.gym.benchmarks.Entities;
+import com.gym.classservice.domain.model.Capacity;
+import com.gym.classservice.domain.model.GymClass;
+import com.gym.shared.grpc.GetClassResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Protobuf GetClassResponse building, as done by ClassGrpcService for every GetClass(es) call.
+ * Lives in the service's package to reach its package-private mapper.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GetClassResponseBenchmark {
+
+    private GymClass gymClass;
+
+    @Setup
+    public void setUp() {
+        gymClass = Entities.withId(GymClass.create("Spinning", Capacity.of(30)), 42L);
+    }
+
+    @Benchmark
+    public GetClassResponse toResponse() {
+        return ClassGrpcService.toResponse(gymClass);
+    }
+
+    /** Building plus encoding, i.e. what actually goes on the wire */
+    @Benchmark
+    public byte[] toResponseBytes() {
+        return ClassGrpcService.toResponse(gymClass).toByteArray();
+    }
+}
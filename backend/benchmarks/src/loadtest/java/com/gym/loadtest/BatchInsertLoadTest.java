@@ -0,0 +1,216 @@
+package com.gym.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Inserts per second of the group booking path (POST /bookings/batch) under three insert modes,
+ * each on a fresh stack:
+ *
+ * - row by row:          hibernate.jdbc.batch_size=1, one INSERT round trip per booking
+ * - JDBC batch:          batch_size=50, the driver still sends one INSERT per row in a single batch
+ * - multi-row rewrite:   batch_size=50 with reWriteBatchedInserts (the production settings)
+ *
+ * Ids come from the pooled sequences in every mode, so the comparison isolates the insert itself.
+ * "inserts/s" is rows divided by the time spent in the flushed INSERT (booking.db.insert, kind=batch),
+ * summed over all clients: the rate of one connection. "bookings/s" is the end-to-end rate of all
+ * clients together, including the seat reservation and the outbox write.
+ *
+ * Run with {@code gradle :benchmarks:batchInsertLoadTest}; see benchmarks/build.gradle for the options.
+ */
+public final class BatchInsertLoadTest {
+
+    private static final int GROUP_SIZE = 50;
+    private static final List<InsertMode> MODES = List.of(
+            new InsertMode("row by row", 1, false),
+            new InsertMode("JDBC batch", GROUP_SIZE, false),
+            new InsertMode("multi-row rewrite", GROUP_SIZE, true));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final int groups = Integer.getInteger("loadtest.groups", 400);
+    private final int warmupGroups = Integer.getInteger("loadtest.warmup-groups", 100);
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 8);
+
+    public static void main(String[] args) throws Exception {
+        BatchInsertLoadTest loadTest = new BatchInsertLoadTest();
+        String classServiceJar = System.getProperty("loadtest.class-service-jar");
+        String bookingServiceJar = System.getProperty("loadtest.booking-service-jar");
+
+        List<Result> results = new ArrayList<>();
+        for (InsertMode mode : MODES) {
+            results.add(loadTest.run(classServiceJar, bookingServiceJar, mode));
+        }
+
+        String rendered = loadTest.render(results);
+        System.out.print(rendered);
+        String reportPath = System.getProperty("loadtest.report");
+        if (reportPath != null) {
+            Path path = Path.of(reportPath);
+            Files.createDirectories(path.getParent());
+            Files.writeString(path, rendered);
+        }
+        System.exit(results.stream().allMatch(Result::complete) ? 0 : 1);
+    }
+
+    Result run(String classServiceJar, String bookingServiceJar, InsertMode mode) throws Exception {
+        if (groups < 1 || warmupGroups < 0 || concurrency < 1) {
+            throw new IllegalArgumentException("Need groups >= 1, warmup-groups >= 0 and concurrency >= 1");
+        }
+
+        try (LocalStack stack = LocalStack.start(classServiceJar, bookingServiceJar, false, false,
+                mode.reWriteBatchedInserts(), "--spring.jpa.properties.hibernate.jdbc.batch_size=" + mode.batchSize())) {
+            // One class per client: concurrent groups never wait on each other's seat counter
+            List<Long> classIds = new ArrayList<>();
+            int groupsPerClass = (warmupGroups + groups + concurrency - 1) / concurrency;
+            for (int c = 0; c < concurrency; c++) {
+                classIds.add(createClass(stack, groupsPerClass * GROUP_SIZE));
+            }
+
+            book(stack, classIds, 0, warmupGroups);
+            Timer inserts = stack.bookingServiceBean(MeterRegistry.class)
+                    .get("booking.db.insert").tag("kind", "batch").timer();
+            long insertCountBefore = inserts.count();
+            double insertNanosBefore = inserts.totalTime(TimeUnit.NANOSECONDS);
+
+            long begin = System.nanoTime();
+            book(stack, classIds, warmupGroups, groups);
+            long elapsed = System.nanoTime() - begin;
+
+            return new Result(mode, elapsed,
+                    inserts.count() - insertCountBefore,
+                    inserts.totalTime(TimeUnit.NANOSECONDS) - insertNanosBefore,
+                    countBookings(stack) - (long) warmupGroups * GROUP_SIZE);
+        }
+    }
+
+    /**
+     * Groups {@code first .. first + count - 1}, spread round-robin over the classes, one client per class
+     */
+    private void book(LocalStack stack, List<Long> classIds, int first, int count) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(classIds.size());
+        try {
+            List<Future<?>> pending = new ArrayList<>();
+            for (int c = 0; c < classIds.size(); c++) {
+                long classId = classIds.get(c);
+                int client = c;
+                pending.add(clients.submit(() -> {
+                    for (int group = first + client; group < first + count; group += classIds.size()) {
+                        bookGroup(stack, classId, group);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> client : pending) {
+                client.get(10, TimeUnit.MINUTES);
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private void bookGroup(LocalStack stack, long classId, int group) throws Exception {
+        String userNames = IntStream.range(0, GROUP_SIZE)
+                .mapToObj(i -> "\"member-" + group + "-" + i + "\"")
+                .collect(Collectors.joining(",", "[", "]"));
+        send(HttpRequest.newBuilder(URI.create(stack.bookingServiceUrl() + "/bookings/batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"classId\":" + classId + ",\"userNames\":" + userNames + "}")), 201);
+    }
+
+    private long createClass(LocalStack stack, int capacity) throws Exception {
+        String body = "{\"name\":\"Batch insert\",\"capacity\":" + capacity + "}";
+        return objectMapper.readTree(send(HttpRequest.newBuilder(URI.create(stack.classServiceUrl() + "/classes"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)), 201)).path("id").asLong();
+    }
+
+    private long countBookings(LocalStack stack) throws Exception {
+        try (Connection connection = stack.database().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT count(*) FROM booking_service.bookings")) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private String send(HttpRequest.Builder request, int expectedStatus) throws Exception {
+        HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException(request.build().method() + " " + request.build().uri()
+                    + " answered " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private String render(List<Result> results) {
+        StringBuilder report = new StringBuilder("Batch insert load test\n")
+                .append(String.format("  scenario:   %d group bookings of %d (after %d warm-up groups), %d concurrent clients%n",
+                        groups, GROUP_SIZE, warmupGroups, concurrency))
+                .append(String.format("  %-18s %10s %7s %14s %14s %12s%n",
+                        "mode", "batch_size", "rewrite", "inserts/s/conn", "insert (mean)", "bookings/s"));
+        for (Result result : results) {
+            report.append(String.format("  %-18s %10d %7s %14.0f %11.2f ms %12.0f%s%n",
+                    result.mode().label(), result.mode().batchSize(), result.mode().reWriteBatchedInserts() ? "on" : "off",
+                    result.insertsPerSecond(), result.meanInsertMillis(), result.bookingsPerSecond(),
+                    result.complete() ? "" : "  (only " + result.bookings() + " bookings in Postgres)"));
+        }
+        Result baseline = results.get(0);
+        for (Result result : results.subList(1, results.size())) {
+            report.append(String.format("  %s vs %s: inserts/s x%.2f, bookings/s x%.2f%n",
+                    result.mode().label(), baseline.mode().label(),
+                    result.insertsPerSecond() / baseline.insertsPerSecond(),
+                    result.bookingsPerSecond() / baseline.bookingsPerSecond()));
+        }
+        return report.toString();
+    }
+
+    record InsertMode(String label, int batchSize, boolean reWriteBatchedInserts) {
+    }
+
+    /**
+     * One mode's measured window: wall clock, the batch insert timer's delta and the rows that landed
+     */
+    private record Result(InsertMode mode, long elapsedNanos, long inserts, double insertNanos, long bookings) {
+
+        double insertsPerSecond() {
+            return inserts * GROUP_SIZE / (insertNanos / 1e9);
+        }
+
+        double meanInsertMillis() {
+            return insertNanos / Math.max(1, inserts) / 1e6;
+        }
+
+        double bookingsPerSecond() {
+            return bookings / (elapsedNanos / 1e9);
+        }
+
+        boolean complete() {
+            return bookings == inserts * GROUP_SIZE;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.gym.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * "Last seat" race: many concurrent POST /bookings for a class with only a few seats left.
+ *
+ * The class is created with the configured capacity and filled through POST /bookings/batch
+ * until {@code seats} remain, then {@code requests} distinct users race for them.
+ * Passes only if no more bookings succeeded than seats were left (checked against
+ * the responses, the bookings table and Class Service's availability).
+ *
+ * With {@code threads=both} the same race runs once on platform and once on virtual threads
+ * (a fresh stack each time) and the report compares their throughput and latency.
+ *
+ * Run with {@code gradle :benchmarks:lastSeatLoadTest}; see benchmarks/build.gradle for the options.
+ */
+public final class LastSeatLoadTest {
+
+    private static final int BATCH_SIZE = 50;
+    private static final int IO_ERROR = -1;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final int capacity = Integer.getInteger("loadtest.capacity", 30);
+    private final int seats = Integer.getInteger("loadtest.seats", 3);
+    private final int requests = Integer.getInteger("loadtest.requests", 2000);
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 200);
+    private final boolean hot = Boolean.getBoolean("loadtest.hot");
+    private final boolean waitingRoom = Boolean.getBoolean("loadtest.waiting-room");
+
+    public static void main(String[] args) throws Exception {
+        LastSeatLoadTest loadTest = new LastSeatLoadTest();
+        String classServiceJar = System.getProperty("loadtest.class-service-jar");
+        String bookingServiceJar = System.getProperty("loadtest.booking-service-jar");
+
+        List<LoadReport> reports = new ArrayList<>();
+        for (boolean virtualThreads : threadModes(System.getProperty("loadtest.threads", "platform"))) {
+            reports.add(loadTest.run(classServiceJar, bookingServiceJar, virtualThreads));
+        }
+
+        StringBuilder rendered = new StringBuilder();
+        reports.forEach(report -> rendered.append(report.render()));
+        if (reports.size() == 2) {
+            rendered.append(LoadReport.compare("virtual vs platform threads", reports.get(1), reports.get(0)));
+        }
+        System.out.print(rendered);
+        String reportPath = System.getProperty("loadtest.report");
+        if (reportPath != null) {
+            Path path = Path.of(reportPath);
+            Files.createDirectories(path.getParent());
+            Files.writeString(path, rendered);
+        }
+        System.exit(reports.stream().anyMatch(LoadReport::overbooked) ? 1 : 0);
+    }
+
+    /**
+     * platform | virtual | both (platform first); virtual threads need a JDK 21+ runtime
+     */
+    private static List<Boolean> threadModes(String threads) {
+        List<Boolean> modes = switch (threads) {
+            case "platform" -> List.of(false);
+            case "virtual" -> List.of(true);
+            case "both" -> List.of(false, true);
+            default -> throw new IllegalArgumentException("Unknown loadtest.threads: " + threads);
+        };
+        if (modes.contains(true) && Runtime.version().feature() < 21) {
+            // Spring Boot would silently stay on platform threads and the comparison would be meaningless
+            throw new IllegalStateException("Virtual threads need a JDK 21+ runtime, this is " + Runtime.version());
+        }
+        return modes;
+    }
+
+    LoadReport run(String classServiceJar, String bookingServiceJar, boolean virtualThreads) throws Exception {
+        if (seats < 1 || seats > capacity || requests < 1 || concurrency < 1) {
+            throw new IllegalArgumentException("Need 1 <= seats <= capacity, requests >= 1 and concurrency >= 1");
+        }
+
+        try (LocalStack stack = LocalStack.start(classServiceJar, bookingServiceJar, waitingRoom, virtualThreads)) {
+            long classId = createClass(stack);
+            prefill(stack, classId);
+            if (hot) {
+                send(HttpRequest.newBuilder(URI.create(stack.classServiceUrl() + "/classes/" + classId + "/hot-inventory"))
+                        .POST(HttpRequest.BodyPublishers.noBody()), 204);
+            }
+
+            long[] latencies = new long[requests];
+            Map<Integer, Long> statusCounts = new ConcurrentHashMap<>();
+            long elapsed = race(stack, classId, latencies, statusCounts);
+
+            if (hot) {
+                // Writes the final counter back to Postgres
+                send(HttpRequest.newBuilder(URI.create(stack.classServiceUrl() + "/classes/" + classId + "/hot-inventory"))
+                        .DELETE(), 204);
+            }
+
+            String scenario = String.format(
+                    "capacity %d, %d seat(s) left, %d concurrent clients, hot inventory %s, waiting room %s, %s threads",
+                    capacity, seats, concurrency, hot ? "on" : "off", waitingRoom ? "on" : "off",
+                    virtualThreads ? "virtual" : "platform");
+            return new LoadReport(scenario, latencies, statusCounts, elapsed,
+                    capacity, seats, countBookings(stack, classId), availableSpots(stack, classId));
+        }
+    }
+
+    /**
+     * All clients wait on one latch so the requests hit the last seats together
+     */
+    private long race(LocalStack stack, long classId, long[] latencies, Map<Integer, Long> statusCounts)
+            throws InterruptedException {
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger next = new AtomicInteger();
+
+        for (int c = 0; c < concurrency; c++) {
+            clients.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                    long begin = System.nanoTime();
+                    int status = post(stack, "/bookings",
+                            "{\"classId\":" + classId + ",\"userName\":\"racer-" + i + "\"}");
+                    latencies[i] = System.nanoTime() - begin;
+                    statusCounts.merge(status, 1L, Long::sum);
+                }
+            });
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        clients.shutdown();
+        if (!clients.awaitTermination(10, TimeUnit.MINUTES)) {
+            clients.shutdownNow();
+            throw new IllegalStateException("Load test did not finish within 10 minutes");
+        }
+        return System.nanoTime() - begin;
+    }
+
+    /**
+     * One booking attempt, following waiting-room tickets (202 + Retry-After) until a final answer
+     */
+    private int post(LocalStack stack, String path, String body) {
+        String ticket = null;
+        try {
+            while (true) {
+                HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(stack.bookingServiceUrl() + path))
+                        .header("Content-Type", "application/json")
+                        .timeout(Duration.ofSeconds(30))
+                        .POST(HttpRequest.BodyPublishers.ofString(body));
+                if (ticket != null) {
+                    request.header("X-Queue-Ticket", ticket);
+                }
+                HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 202) {
+                    return response.statusCode();
+                }
+                ticket = objectMapper.readTree(response.body()).path("ticket").asText();
+                long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+                Thread.sleep(TimeUnit.SECONDS.toMillis(Math.max(1, retryAfter)));
+            }
+        } catch (IOException e) {
+            return IO_ERROR;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return IO_ERROR;
+        }
+    }
+
+    private long createClass(LocalStack stack) throws Exception {
+        String body = "{\"name\":\"Last seat\",\"capacity\":" + capacity + "}";
+        JsonNode created = send(HttpRequest.newBuilder(URI.create(stack.classServiceUrl() + "/classes"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)), 201);
+        return created.path("id").asLong();
+    }
+
+    /**
+     * Sell all but the last seats through group bookings
+     */
+    private void prefill(LocalStack stack, long classId) throws Exception {
+        int toSell = capacity - seats;
+        for (int sold = 0; sold < toSell; sold += BATCH_SIZE) {
+            List<String> userNames = new ArrayList<>();
+            for (int i = sold; i < Math.min(toSell, sold + BATCH_SIZE); i++) {
+                userNames.add("regular-" + i);
+            }
+            String body = "{\"classId\":" + classId + ",\"userNames\":" + userNames.stream()
+                    .map(name -> "\"" + name + "\"")
+                    .collect(Collectors.joining(",", "[", "]")) + "}";
+            int status = post(stack, "/bookings/batch", body);
+            if (status != 201) {
+                throw new IllegalStateException("Prefill group booking answered " + status);
+            }
+        }
+    }
+
+    private int availableSpots(LocalStack stack, long classId) throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(stack.classServiceUrl() + "/classes/" + classId)).GET(), 200)
+                .path("availableSpots").asInt();
+    }
+
+    private long countBookings(LocalStack stack, long classId) throws Exception {
+        try (Connection connection = stack.database().getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT count(*) FROM booking_service.bookings WHERE class_id = ?")) {
+            statement.setLong(1, classId);
+            try (ResultSet result = statement.executeQuery()) {
+                result.next();
+                return result.getLong(1);
+            }
+        }
+    }
+
+    private JsonNode send(HttpRequest.Builder request, int expectedStatus) throws Exception {
+        HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException(request.build().method() + " " + request.build().uri()
+                    + " answered " + response.statusCode() + ": " + response.body());
+        }
+        return response.body().isEmpty() ? objectMapper.nullNode() : objectMapper.readTree(response.body());
+    }
+}
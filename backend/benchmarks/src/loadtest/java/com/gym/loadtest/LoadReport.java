@@ -0,0 +1,104 @@
+package com.gym.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Outcome of one last-seat run: throughput, latency percentiles, status codes
+ * and the seat accounting that decides pass/fail.
+ */
+final class LoadReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final String scenario;
+    private final long[] latenciesNanos;
+    private final Map<Integer, Long> statusCounts;
+    private final long elapsedNanos;
+    private final int capacity;
+    private final int seatsLeft;
+    private final long bookedSeats;
+    private final int availableSpots;
+
+    LoadReport(String scenario, long[] latenciesNanos, Map<Integer, Long> statusCounts, long elapsedNanos,
+               int capacity, int seatsLeft, long bookedSeats, int availableSpots) {
+        this.scenario = scenario;
+        this.latenciesNanos = latenciesNanos.clone();
+        Arrays.sort(this.latenciesNanos);
+        this.statusCounts = new TreeMap<>(statusCounts);
+        this.elapsedNanos = elapsedNanos;
+        this.capacity = capacity;
+        this.seatsLeft = seatsLeft;
+        this.bookedSeats = bookedSeats;
+        this.availableSpots = availableSpots;
+    }
+
+    long created() {
+        return statusCounts.getOrDefault(201, 0L);
+    }
+
+    /**
+     * More bookings than seats, counted both from the responses and from Postgres
+     */
+    boolean overbooked() {
+        return created() > seatsLeft || bookedSeats > capacity || availableSpots < 0;
+    }
+
+    double throughput() {
+        return latenciesNanos.length / (elapsedNanos / 1e9);
+    }
+
+    /**
+     * Seats that are neither booked nor available (a reservation that was never compensated)
+     */
+    long leakedSeats() {
+        return capacity - bookedSeats - availableSpots;
+    }
+
+    String render() {
+        double seconds = elapsedNanos / 1e9;
+        StringBuilder report = new StringBuilder()
+                .append("Last-seat load test\n")
+                .append("  scenario:   ").append(scenario).append('\n')
+                .append(String.format("  requests:   %d in %.2f s (%.0f req/s)%n",
+                        latenciesNanos.length, seconds, throughput()))
+                .append("  responses: ");
+        statusCounts.forEach((status, count) ->
+                report.append(' ').append(status < 0 ? "I/O error" : status).append(" x").append(count));
+        report.append('\n').append("  latency:   ");
+        for (double percentile : PERCENTILES) {
+            report.append(String.format(" p%s=%.1f ms", formatPercentile(percentile), percentile(percentile) / 1e6));
+        }
+        report.append(String.format(" max=%.1f ms%n", latenciesNanos[latenciesNanos.length - 1] / 1e6))
+                .append(String.format("  seats:      %d left before the run, %d booked (201)%n", seatsLeft, created()))
+                .append(String.format("  postgres:   %d bookings for a capacity of %d%n", bookedSeats, capacity))
+                .append(String.format("  class:      %d spots available, %d leaked%n", availableSpots, leakedSeats()))
+                .append("  result:     ").append(overbooked() ? "FAIL (overbooked)" : "PASS (no overbooking)").append('\n');
+        return report.toString();
+    }
+
+    /**
+     * Ratios of one run to another: throughput (higher is better) and latency percentiles (lower is better)
+     */
+    static String compare(String label, LoadReport candidate, LoadReport baseline) {
+        StringBuilder comparison = new StringBuilder("Comparison: ").append(label).append('\n')
+                .append(String.format("  throughput: %.0f vs %.0f req/s (x%.2f)%n",
+                        candidate.throughput(), baseline.throughput(), candidate.throughput() / baseline.throughput()))
+                .append("  latency:   ");
+        for (double percentile : PERCENTILES) {
+            comparison.append(String.format(" p%s x%.2f", formatPercentile(percentile),
+                    (double) candidate.percentile(percentile) / Math.max(1, baseline.percentile(percentile))));
+        }
+        return comparison.append('\n').toString();
+    }
+
+    private long percentile(double percentile) {
+        int rank = (int) Math.ceil(percentile / 100 * latenciesNanos.length);
+        return latenciesNanos[Math.max(0, rank - 1)];
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
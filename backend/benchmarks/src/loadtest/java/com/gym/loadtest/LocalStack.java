@@ -0,0 +1,144 @@
+package com.gym.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.DefaultResourceLoader;
+import redis.embedded.RedisServer;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+
+/**
+ * Class Service and Booking Service in one JVM, fully offline:
+ * embedded Postgres and Redis stand in for docker-compose, and
+ * Booking Service reaches Class Service over an in-process gRPC channel.
+ *
+ * Each service jar gets its own class loader (on top of the shared libraries),
+ * so both keep their own application.yml and db/migration.
+ */
+final class LocalStack implements AutoCloseable {
+
+    private static final String GRPC_IN_PROCESS_NAME = "class-service";
+    private static final String TICKET_SECRET = "local-stack-waiting-room-ticket-secret";
+
+    private final EmbeddedPostgres postgres;
+    private final RedisServer redis;
+    private final ConfigurableApplicationContext classService;
+    private final ConfigurableApplicationContext bookingService;
+
+    private LocalStack(EmbeddedPostgres postgres, RedisServer redis,
+                       ConfigurableApplicationContext classService,
+                       ConfigurableApplicationContext bookingService) {
+        this.postgres = postgres;
+        this.redis = redis;
+        this.classService = classService;
+        this.bookingService = bookingService;
+    }
+
+    static LocalStack start(String classServiceJar, String bookingServiceJar,
+                            boolean waitingRoom, boolean virtualThreads) throws Exception {
+        return start(classServiceJar, bookingServiceJar, waitingRoom, virtualThreads, true);
+    }
+
+    /**
+     * @param reWriteBatchedInserts  let the driver fold JDBC batches into multi-row INSERTs (as in production)
+     * @param bookingServiceArgs     extra Booking Service arguments, e.g. a different hibernate.jdbc.batch_size
+     */
+    static LocalStack start(String classServiceJar, String bookingServiceJar,
+                            boolean waitingRoom, boolean virtualThreads,
+                            boolean reWriteBatchedInserts, String... bookingServiceArgs) throws Exception {
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+        int redisPort = freePort();
+        RedisServer redis = new RedisServer(redisPort);
+        redis.start();
+
+        String[] common = {
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=" + reWriteBatchedInserts,
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--spring.data.redis.host=localhost",
+                "--spring.data.redis.port=" + redisPort,
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                // Request handling, listeners and gRPC executors of both services (JDK 21+)
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                // Both gRPC starters share the classpath: only Class Service serves, and only in-process
+                "--grpc.server.port=-1"
+        };
+
+        ConfigurableApplicationContext classService = boot(classServiceJar,
+                "com.gym.classservice.ClassServiceApplication", common,
+                "--grpc.server.in-process-name=" + GRPC_IN_PROCESS_NAME);
+        String[] bookingArgs = new String[bookingServiceArgs.length + 3];
+        bookingArgs[0] = "--grpc.client.class-service.address=in-process:" + GRPC_IN_PROCESS_NAME;
+        bookingArgs[1] = "--app.waiting-room.enabled=" + waitingRoom;
+        bookingArgs[2] = "--app.waiting-room.ticket-secret=" + TICKET_SECRET;
+        System.arraycopy(bookingServiceArgs, 0, bookingArgs, 3, bookingServiceArgs.length);
+        ConfigurableApplicationContext bookingService = boot(bookingServiceJar,
+                "com.gym.bookingservice.BookingServiceApplication", common, bookingArgs);
+
+        return new LocalStack(postgres, redis, classService, bookingService);
+    }
+
+    String classServiceUrl() {
+        return "http://localhost:" + classService.getEnvironment().getProperty("local.server.port");
+    }
+
+    String bookingServiceUrl() {
+        return "http://localhost:" + bookingService.getEnvironment().getProperty("local.server.port");
+    }
+
+    /**
+     * A bean of Booking Service, e.g. its MeterRegistry (types shared with the harness only)
+     */
+    <T> T bookingServiceBean(Class<T> type) {
+        return bookingService.getBean(type);
+    }
+
+    DataSource database() {
+        return postgres.getPostgresDatabase();
+    }
+
+    @Override
+    public void close() throws Exception {
+        bookingService.close();
+        classService.close();
+        redis.stop();
+        postgres.close();
+    }
+
+    private static ConfigurableApplicationContext boot(String jar, String mainClass,
+                                                       String[] common, String... extra) throws Exception {
+        URLClassLoader loader = new URLClassLoader(
+                new URL[]{Path.of(jar).toUri().toURL()}, LocalStack.class.getClassLoader());
+
+        String[] args = new String[common.length + extra.length];
+        System.arraycopy(common, 0, args, 0, common.length);
+        System.arraycopy(extra, 0, args, common.length, extra.length);
+
+        // Resources resolved during startup (Lua scripts, migrations) must come from the service's jar
+        Thread current = Thread.currentThread();
+        ClassLoader previous = current.getContextClassLoader();
+        current.setContextClassLoader(loader);
+        try {
+            return new SpringApplicationBuilder(loader.loadClass(mainClass))
+                    .resourceLoader(new DefaultResourceLoader(loader))
+                    .run(args);
+        } finally {
+            current.setContextClassLoader(previous);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
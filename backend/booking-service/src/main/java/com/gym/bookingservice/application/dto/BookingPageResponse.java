@@ -0,0 +1,26 @@
+package com.gym.bookingservice.application.dto;
+
+import java.util.List;
+
+/**
+ * Response DTO for one page of bookings
+ * nextCursor is null on the last page
+ */
+public class BookingPageResponse {
+
+    private final List<BookingResponse> items;
+    private final String nextCursor;
+
+    public BookingPageResponse(List<BookingResponse> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<BookingResponse> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
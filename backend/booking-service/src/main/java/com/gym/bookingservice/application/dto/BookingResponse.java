@@ -1,6 +1,7 @@
 package com.gym.bookingservice.application.dto;
 
 import com.gym.bookingservice.domain.model.Booking;
+import com.gym.shared.grpc.GetClassResponse;
 
 import java.time.LocalDateTime;
 
@@ -14,6 +15,8 @@ public class BookingResponse {
     private Long classId;
     private String userName;
     private LocalDateTime createdAt;
+    private String className;
+    private Integer classAvailableSpots;
 
     // Factory method: Create from domain model
     public static BookingResponse fromDomain(Booking booking) {
@@ -25,6 +28,16 @@ public class BookingResponse {
         return response;
     }
 
+    // Factory method: Create from domain model, enriched with class info (may be null)
+    public static BookingResponse fromDomain(Booking booking, GetClassResponse classInfo) {
+        BookingResponse response = fromDomain(booking);
+        if (classInfo != null) {
+            response.className = classInfo.getName();
+            response.classAvailableSpots = classInfo.getAvailableSpots();
+        }
+        return response;
+    }
+
     // Getters for JSON serialization
     public Long getId() {
         return id;
@@ -41,4 +54,12 @@ public class BookingResponse {
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public Integer getClassAvailableSpots() {
+        return classAvailableSpots;
+    }
 }
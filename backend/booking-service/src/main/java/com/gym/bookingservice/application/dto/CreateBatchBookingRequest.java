@@ -0,0 +1,53 @@
+package com.gym.bookingservice.application.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Request DTO for a group booking (one class, several members)
+ * Validation happens here (not in domain layer)
+ */
+public class CreateBatchBookingRequest {
+
+    public static final int MAX_BATCH_SIZE = 50;
+
+    @NotNull(message = "Class ID is required")
+    @Min(value = 1, message = "Class ID must be positive")
+    private Long classId;
+
+    @NotEmpty(message = "At least one user name is required")
+    @Size(max = MAX_BATCH_SIZE, message = "A group booking cannot exceed " + MAX_BATCH_SIZE + " members")
+    private List<@NotBlank(message = "User name is required")
+                 @Size(max = 100, message = "User name cannot exceed 100 characters") String> userNames;
+
+    public CreateBatchBookingRequest() {
+    }
+
+    @AssertTrue(message = "User names must be unique")
+    public boolean isUserNamesUnique() {
+        return userNames == null || new HashSet<>(userNames).size() == userNames.size();
+    }
+
+    public Long getClassId() {
+        return classId;
+    }
+
+    public void setClassId(Long classId) {
+        this.classId = classId;
+    }
+
+    public List<String> getUserNames() {
+        return userNames;
+    }
+
+    public void setUserNames(List<String> userNames) {
+        this.userNames = userNames;
+    }
+}
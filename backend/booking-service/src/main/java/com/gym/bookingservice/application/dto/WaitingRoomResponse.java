@@ -0,0 +1,30 @@
+package com.gym.bookingservice.application.dto;
+
+/**
+ * Response DTO for a booking request that is still queued
+ * Send the ticket back in the X-Queue-Ticket header after retryAfterSeconds.
+ */
+public class WaitingRoomResponse {
+
+    private final String ticket;
+    private final long position;
+    private final long retryAfterSeconds;
+
+    public WaitingRoomResponse(String ticket, long position, long retryAfterSeconds) {
+        this.ticket = ticket;
+        this.position = position;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public String getTicket() {
+        return ticket;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
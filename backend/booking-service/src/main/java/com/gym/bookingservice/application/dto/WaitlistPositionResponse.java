@@ -0,0 +1,46 @@
+package com.gym.bookingservice.application.dto;
+
+/**
+ * Response DTO for a waitlist entry
+ *
+ * While waiting, position is 1-based and bookingId is null.
+ * Once promoted, position is null and bookingId identifies the new booking.
+ */
+public class WaitlistPositionResponse {
+
+    private final Long classId;
+    private final String userName;
+    private final Long position;
+    private final Long bookingId;
+
+    private WaitlistPositionResponse(Long classId, String userName, Long position, Long bookingId) {
+        this.classId = classId;
+        this.userName = userName;
+        this.position = position;
+        this.bookingId = bookingId;
+    }
+
+    public static WaitlistPositionResponse waiting(Long classId, String userName, long position) {
+        return new WaitlistPositionResponse(classId, userName, position, null);
+    }
+
+    public static WaitlistPositionResponse promoted(Long classId, String userName, long bookingId) {
+        return new WaitlistPositionResponse(classId, userName, null, bookingId);
+    }
+
+    public Long getClassId() {
+        return classId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public Long getPosition() {
+        return position;
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+}
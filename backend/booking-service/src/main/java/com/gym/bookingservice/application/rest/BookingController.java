@@ -1,17 +1,36 @@
 package com.gym.bookingservice.application.rest;
 
+import com.gym.bookingservice.application.dto.BookingCursor;
+import com.gym.bookingservice.application.dto.BookingPageResponse;
 import com.gym.bookingservice.application.dto.BookingResponse;
+import com.gym.bookingservice.application.dto.CreateBatchBookingRequest;
 import com.gym.bookingservice.application.dto.CreateBookingRequest;
+import com.gym.bookingservice.application.dto.WaitingRoomResponse;
 import com.gym.bookingservice.application.service.BookingService;
+import com.gym.bookingservice.application.service.WaitingRoom;
 import com.gym.bookingservice.domain.model.Booking;
+import com.gym.bookingservice.infrastructure.grpc.ClassServiceGrpcClient;
 import com.gym.bookingservice.infrastructure.persistence.BookingJpaRepository;
+import com.gym.bookingservice.infrastructure.persistence.BookingSpecifications;
+import com.gym.shared.grpc.GetClassResponse;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -28,13 +47,24 @@ import java.util.stream.Collectors;
 @Transactional
 public class BookingController {
 
+    private static final Logger log = LoggerFactory.getLogger(BookingController.class);
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final BookingService bookingService;
     private final BookingJpaRepository bookingRepository;
+    private final ClassServiceGrpcClient classServiceClient;
+    private final WaitingRoom waitingRoom;
 
     public BookingController(BookingService bookingService,
-                             BookingJpaRepository bookingRepository) {
+                             BookingJpaRepository bookingRepository,
+                             ClassServiceGrpcClient classServiceClient,
+                             WaitingRoom waitingRoom) {
         this.bookingService = bookingService;
         this.bookingRepository = bookingRepository;
+        this.classServiceClient = classServiceClient;
+        this.waitingRoom = waitingRoom;
     }
 
     /**
@@ -42,12 +72,28 @@ public class BookingController {
      * Create a new booking
      *
      * Business flow:
-     * 1. Validate input (via @Valid)
-     * 2. Call service to create booking (validates class via gRPC)
-     * 3. Return booking response
+     * 1. Validate input (via @Valid); with auth on, userName must be the caller's (403 otherwise)
+     * 2. Pass the per-class waiting room: 202 with a queue ticket if not admitted yet
+     * 3. Call service to create booking (validates class via gRPC)
+     * 4. Return booking response
+     *
+     * No transaction here: queued and rejected requests never touch Postgres.
      */
     @PostMapping
-    public ResponseEntity<BookingResponse> createBooking(@Valid @RequestBody CreateBookingRequest request) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<?> createBooking(
+            @Valid @RequestBody CreateBookingRequest request,
+            @RequestHeader(value = WaitingRoom.TICKET_HEADER, required = false) String ticket,
+            Principal principal) {
+        Caller.requireSelf(principal, request.getUserName());
+
+        Optional<WaitingRoomResponse> queued = waitingRoom.enter(request.getClassId(), request.getUserName(), ticket);
+        if (queued.isPresent()) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(queued.get().getRetryAfterSeconds()))
+                    .body(queued.get());
+        }
+
         // Delegate to service for business logic
         Booking booking = bookingService.createBooking(request.getClassId(), request.getUserName());
 
@@ -58,19 +104,67 @@ public class BookingController {
     }
 
     /**
-     * GET /bookings
-     * List all bookings
+     * POST /bookings/batch
+     * Book several members into one class at once, all or nothing
+     *
+     * With auth on, the caller must be one of the members. Passes the class's waiting room
+     * like POST /bookings, with one ticket for the group.
+     * One seat reservation for the whole group, one batched insert, one event.
      */
-    @GetMapping
-    @Transactional(readOnly = true)
-    public ResponseEntity<List<BookingResponse>> getAllBookings() {
-        List<Booking> bookings = bookingRepository.findAll();
+    @PostMapping("/batch")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<?> createBookings(
+            @Valid @RequestBody CreateBatchBookingRequest request,
+            @RequestHeader(value = WaitingRoom.TICKET_HEADER, required = false) String ticket,
+            Principal principal) {
+        Caller.requireMember(principal, request.getUserNames());
+
+        Optional<WaitingRoomResponse> queued = waitingRoom.enter(request.getClassId(), request.getUserNames(), ticket);
+        if (queued.isPresent()) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(queued.get().getRetryAfterSeconds()))
+                    .body(queued.get());
+        }
+
+        List<Booking> bookings = bookingService.createBookings(request.getClassId(), request.getUserNames());
 
         List<BookingResponse> response = bookings.stream()
                 .map(BookingResponse::fromDomain)
                 .collect(Collectors.toList());
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    /**
+     * GET /bookings?classId=&userName=&from=&to=&cursor=&size=
+     * List one page of bookings (newest first), enriched with class name and availability
+     *
+     * Keyset-paginated: pass the returned nextCursor to get the following page.
+     * All filters are optional; from is inclusive, to is exclusive.
+     */
+    @GetMapping
+    @Transactional(readOnly = true)
+    public ResponseEntity<BookingPageResponse> getAllBookings(
+            @RequestParam(required = false) Long classId,
+            @RequestParam(required = false) String userName,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        Specification<Booking> filter = Specification.where(BookingSpecifications.hasClassId(classId))
+                .and(BookingSpecifications.hasUserName(userName))
+                .and(BookingSpecifications.createdFrom(from))
+                .and(BookingSpecifications.createdBefore(to));
+
+        Window<Booking> window = bookingRepository.findPage(filter, BookingCursor.decode(cursor), pageSize);
+
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? BookingCursor.encode(window.positionAt(window.size() - 1))
+                : null;
+
+        return ResponseEntity.ok(new BookingPageResponse(toEnrichedResponses(window.getContent()), nextCursor));
     }
 
     /**
@@ -88,6 +182,26 @@ public class BookingController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Enrich bookings with class info using ONE batched GetClasses call (not one per booking).
+     * Enrichment is best effort: if Class Service is unreachable the plain bookings are returned.
+     */
+    private List<BookingResponse> toEnrichedResponses(List<Booking> bookings) {
+        Map<Long, GetClassResponse> classes;
+        try {
+            classes = classServiceClient.getClasses(
+                    bookings.stream().map(Booking::getClassId).collect(Collectors.toSet()));
+        } catch (ClassServiceGrpcClient.GrpcCommunicationException e) {
+            log.warn("Returning bookings without class info: {}", e.getMessage());
+            classes = Map.of();
+        }
+
+        Map<Long, GetClassResponse> classesById = classes;
+        return bookings.stream()
+                .map(booking -> BookingResponse.fromDomain(booking, classesById.get(booking.getClassId())))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Domain exception: Booking not found
      */
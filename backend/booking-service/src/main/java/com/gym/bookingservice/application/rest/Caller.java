@@ -0,0 +1,51 @@
+package com.gym.bookingservice.application.rest;
+
+import com.gym.shared.security.JwtPrincipal;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Application Layer: Binds the userName of a request to its authenticated caller
+ *
+ * With app.auth.enabled, JwtAuthenticationFilter exposes the token's subject as the request principal:
+ * - A user books, waits and queries for themselves only; a different userName is rejected (403)
+ * - A group booking must include the caller (the member who books for the group)
+ * - ROLE_ADMIN may act for anyone (front desk)
+ *
+ * With auth off there is no principal and the userName from the request is taken as is.
+ */
+final class Caller {
+
+    private static final String ADMIN_ROLE = "ADMIN";
+
+    private Caller() {
+    }
+
+    static void requireSelf(Principal principal, String userName) {
+        if (principal == null || isAdmin(principal) || principal.getName().equals(userName)) {
+            return;
+        }
+        throw new CallerMismatchException(principal.getName() + " cannot act for " + userName);
+    }
+
+    static void requireMember(Principal principal, List<String> userNames) {
+        if (principal == null || isAdmin(principal) || userNames.contains(principal.getName())) {
+            return;
+        }
+        throw new CallerMismatchException(principal.getName() + " is not a member of this group booking");
+    }
+
+    private static boolean isAdmin(Principal principal) {
+        return principal instanceof JwtPrincipal jwtPrincipal && jwtPrincipal.hasRole(ADMIN_ROLE);
+    }
+
+    /**
+     * Exception: The authenticated caller named another user
+     */
+    public static class CallerMismatchException extends RuntimeException {
+        public CallerMismatchException(String message) {
+            super(message);
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.gym.bookingservice.application.rest;
 
+import com.gym.bookingservice.application.dto.BookingCursor;
+import com.gym.bookingservice.application.service.BookingService;
+import com.gym.bookingservice.application.service.WaitingRoom;
+import com.gym.bookingservice.application.service.WaitlistService;
 import com.gym.bookingservice.infrastructure.grpc.ClassServiceGrpcClient;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -68,6 +72,19 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
     }
 
+    /**
+     * Handle duplicate booking of the same class by the same user
+     */
+    @ExceptionHandler(BookingService.AlreadyBookedException.class)
+    public ResponseEntity<ErrorResponse> handleAlreadyBooked(BookingService.AlreadyBookedException ex) {
+        ErrorResponse response = new ErrorResponse(
+                "Already booked",
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
     /**
      * Handle booking not found
      */
@@ -81,6 +98,58 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
 
+    /**
+     * Handle requests naming another user than the authenticated caller
+     */
+    @ExceptionHandler(Caller.CallerMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleCallerMismatch(Caller.CallerMismatchException ex) {
+        ErrorResponse response = new ErrorResponse(
+                "Forbidden",
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+    }
+
+    /**
+     * Handle waitlist lookups for users who are not waiting
+     */
+    @ExceptionHandler(WaitlistService.NotOnWaitlistException.class)
+    public ResponseEntity<ErrorResponse> handleNotOnWaitlist(WaitlistService.NotOnWaitlistException ex) {
+        ErrorResponse response = new ErrorResponse(
+                "Not on waitlist",
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
+
+    /**
+     * Handle forged or foreign waiting room tickets
+     */
+    @ExceptionHandler(WaitingRoom.InvalidTicketException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidTicket(WaitingRoom.InvalidTicketException ex) {
+        ErrorResponse response = new ErrorResponse(
+                "Invalid queue ticket",
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    /**
+     * Handle malformed pagination cursors
+     */
+    @ExceptionHandler(BookingCursor.InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursor(BookingCursor.InvalidCursorException ex) {
+        ErrorResponse response = new ErrorResponse(
+                "Invalid cursor",
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
     /**
      * Handle gRPC communication errors
      */
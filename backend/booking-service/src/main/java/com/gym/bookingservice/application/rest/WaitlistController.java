@@ -0,0 +1,66 @@
+package com.gym.bookingservice.application.rest;
+
+import com.gym.bookingservice.application.dto.CreateBookingRequest;
+import com.gym.bookingservice.application.dto.WaitlistPositionResponse;
+import com.gym.bookingservice.application.service.WaitlistService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+
+/**
+ * Application Layer: REST Controller for class waitlists
+ *
+ * A user who got "Class is fully booked" joins the waitlist once and polls
+ * its position (one ZRANK), instead of retrying POST /bookings.
+ * With auth on, every endpoint acts for the caller only (403 for another userName).
+ */
+@RestController
+@RequestMapping("/bookings/waitlist")
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    public WaitlistController(WaitlistService waitlistService) {
+        this.waitlistService = waitlistService;
+    }
+
+    /**
+     * POST /bookings/waitlist
+     * Join the waitlist of a full class
+     */
+    @PostMapping
+    public ResponseEntity<WaitlistPositionResponse> join(@Valid @RequestBody CreateBookingRequest request,
+                                                         Principal principal) {
+        Caller.requireSelf(principal, request.getUserName());
+        WaitlistPositionResponse response = waitlistService.join(request.getClassId(), request.getUserName());
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    /**
+     * GET /bookings/waitlist/{classId}/{userName}
+     * Position in the queue, or the booking id once promoted
+     */
+    @GetMapping("/{classId}/{userName}")
+    public ResponseEntity<WaitlistPositionResponse> position(@PathVariable Long classId,
+                                                             @PathVariable String userName,
+                                                             Principal principal) {
+        Caller.requireSelf(principal, userName);
+        return ResponseEntity.ok(waitlistService.position(classId, userName));
+    }
+
+    /**
+     * DELETE /bookings/waitlist/{classId}/{userName}
+     * Leave the waitlist
+     */
+    @DeleteMapping("/{classId}/{userName}")
+    public ResponseEntity<Void> leave(@PathVariable Long classId, @PathVariable String userName,
+                                      Principal principal) {
+        Caller.requireSelf(principal, userName);
+        waitlistService.leave(classId, userName);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,15 +1,33 @@
 package com.gym.bookingservice.application.service;
 
 import com.gym.bookingservice.domain.model.Booking;
+import com.gym.bookingservice.infrastructure.grpc.ClassAvailabilityCache;
 import com.gym.bookingservice.infrastructure.grpc.ClassServiceGrpcClient;
+import com.gym.bookingservice.infrastructure.metrics.BookingMetrics;
+import com.gym.bookingservice.infrastructure.outbox.OutboxEvent;
+import com.gym.bookingservice.infrastructure.outbox.OutboxEventRepository;
 import com.gym.bookingservice.infrastructure.persistence.BookingJpaRepository;
+import com.gym.bookingservice.infrastructure.redis.HotInventoryClient;
 import com.gym.bookingservice.infrastructure.redis.RedisConfig;
+import com.gym.bookingservice.infrastructure.tracing.EventTraceContext;
+import com.gym.shared.events.BookingBatchCreatedEvent;
 import com.gym.shared.events.BookingCreatedEvent;
+import com.gym.shared.events.BookingEventCodec;
+import com.gym.shared.inventory.HotInventory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Application Service: Booking orchestration
@@ -17,7 +35,8 @@ import org.springframework.transaction.annotation.Transactional;
  * Responsibilities:
  * - Coordinate domain operations
  * - Call external services (gRPC)
- * - Publish events via Redis Pub/Sub
+ * - Record events in the transactional outbox (relayed to a Redis Stream by OutboxRelay)
+ * - Time inserts and count failures by exception type (BookingMetrics)
  */
 @Service
 @Transactional
@@ -27,46 +46,233 @@ public class BookingService {
 
     private final BookingJpaRepository bookingRepository;
     private final ClassServiceGrpcClient classServiceClient;
-    private final RedisTemplate<String, BookingCreatedEvent> redisTemplate;
+    private final OutboxEventRepository outboxRepository;
+    private final BookingEventCodec bookingEventCodec;
+    private final HotInventoryClient hotInventoryClient;
+    private final ClassAvailabilityCache availabilityCache;
+    private final BookingMetrics bookingMetrics;
+    private final EventTraceContext eventTraceContext;
+    private final TransactionTemplate freshReadTransaction;
 
     public BookingService(BookingJpaRepository bookingRepository,
                           ClassServiceGrpcClient classServiceClient,
-                          RedisTemplate<String, BookingCreatedEvent> redisTemplate) {
+                          OutboxEventRepository outboxRepository,
+                          BookingEventCodec bookingEventCodec,
+                          HotInventoryClient hotInventoryClient,
+                          ClassAvailabilityCache availabilityCache,
+                          BookingMetrics bookingMetrics,
+                          EventTraceContext eventTraceContext,
+                          PlatformTransactionManager transactionManager) {
         this.bookingRepository = bookingRepository;
         this.classServiceClient = classServiceClient;
-        this.redisTemplate = redisTemplate;
+        this.outboxRepository = outboxRepository;
+        this.bookingEventCodec = bookingEventCodec;
+        this.hotInventoryClient = hotInventoryClient;
+        this.availabilityCache = availabilityCache;
+        this.bookingMetrics = bookingMetrics;
+        this.eventTraceContext = eventTraceContext;
+        this.freshReadTransaction = new TransactionTemplate(transactionManager);
+        this.freshReadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.freshReadTransaction.setReadOnly(true);
     }
 
     /**
      * Create a new booking
      *
      * Business logic:
-     * 1. Validate class exists and has available spots (via gRPC)
+     * 1. Atomically reserve a spot in the class (Redis counter if hot, otherwise via gRPC)
      * 2. Create booking using domain factory
      * 3. Persist booking
-     * 4. Publish event to Redis for Class Service to decrement spots
+     * 4. Write the confirmation event to the outbox (same transaction, no Redis round trip)
+     *
+     * If the transaction rolls back, the reserved spot is released again.
      */
     public Booking createBooking(Long classId, String userName) {
-        // 1. Validate via gRPC
-        classServiceClient.validateClassAvailability(classId);
+        try {
+            return create(classId, userName);
+        } catch (RuntimeException e) {
+            bookingMetrics.countFailure("create", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Create a group booking: one booking per user name, all or nothing
+     *
+     * Same flow as createBooking, but amortised over the group:
+     * ONE reservation of N seats, ONE batched INSERT, ONE aggregated outbox event.
+     * If anything fails, every seat is released and no booking is kept.
+     */
+    public List<Booking> createBookings(Long classId, List<String> userNames) {
+        try {
+            return createAll(classId, userNames);
+        } catch (RuntimeException e) {
+            bookingMetrics.countFailure("create_batch", e);
+            throw e;
+        }
+    }
+
+    private Booking create(Long classId, String userName) {
+        // Cheap index probe so a repeat booking does not take a spot just to give it back
+        if (bookingRepository.existsByClassIdAndUserName(classId, userName)) {
+            throw new AlreadyBookedException(classId, userName);
+        }
+
+        // 1. Reserve (spot is taken here, not in the event listener)
+        reserveSpots(classId, 1);
 
         // 2. Create domain object
         Booking booking = Booking.create(classId, userName);
 
-        // 3. Persist
-        Booking savedBooking = bookingRepository.save(booking);
+        // 3. Persist (unique (class_id, user_name) catches a concurrent duplicate)
+        Booking savedBooking;
+        try {
+            savedBooking = bookingMetrics.timeInsert(false, () -> bookingRepository.saveAndFlush(booking));
+        } catch (DataIntegrityViolationException e) {
+            throw new AlreadyBookedException(classId, userName);
+        }
 
-        // 4. Publish event to Redis
+        // 4. Record event in the outbox: committed together with the booking, or not at all
         BookingCreatedEvent event = new BookingCreatedEvent(
             classId,
             savedBooking.getId(),
             userName
         );
+        // Class Service continues this request's trace when it applies the event
+        event.setTraceContext(eventTraceContext.current());
 
-        redisTemplate.convertAndSend(RedisConfig.BOOKING_CREATED_CHANNEL, event);
-        log.info("Published BookingCreatedEvent to Redis: classId={}, bookingId={}",
+        bookingMetrics.timeOutboxWrite(() -> outboxRepository.save(OutboxEvent.create(
+            RedisConfig.BOOKING_EVENTS_STREAM,
+            BookingCreatedEvent.TYPE,
+            bookingEventCodec.contentType(),
+            bookingEventCodec.bookingCreated().serialize(event)
+        )));
+        log.info("Recorded BookingCreatedEvent in outbox: classId={}, bookingId={}",
             classId, savedBooking.getId());
 
         return savedBooking;
     }
+
+    private List<Booking> createAll(Long classId, List<String> userNames) {
+        List<String> alreadyBooked = bookingRepository.findBookedUserNames(classId, userNames);
+        if (!alreadyBooked.isEmpty()) {
+            throw new AlreadyBookedException(classId, alreadyBooked);
+        }
+
+        reserveSpots(classId, userNames.size());
+
+        List<Booking> bookings = userNames.stream()
+                .map(userName -> Booking.create(classId, userName))
+                .collect(Collectors.toList());
+
+        // Pooled ids + hibernate.jdbc.batch_size: one multi-row INSERT round trip
+        List<Booking> savedBookings;
+        try {
+            savedBookings = bookingMetrics.timeInsert(true, () -> bookingRepository.saveAllAndFlush(bookings));
+        } catch (DataIntegrityViolationException e) {
+            throw new AlreadyBookedException(classId, collidingUserNames(classId, userNames));
+        }
+
+        BookingBatchCreatedEvent event = new BookingBatchCreatedEvent(
+            classId,
+            savedBookings.stream().map(Booking::getId).collect(Collectors.toList()),
+            savedBookings.stream().map(Booking::getUserName).collect(Collectors.toList())
+        );
+        event.setTraceContext(eventTraceContext.current());
+
+        bookingMetrics.timeOutboxWrite(() -> outboxRepository.save(OutboxEvent.create(
+            RedisConfig.BOOKING_EVENTS_STREAM,
+            BookingBatchCreatedEvent.TYPE,
+            bookingEventCodec.contentType(),
+            bookingEventCodec.bookingBatchCreated().serialize(event)
+        )));
+        log.info("Recorded BookingBatchCreatedEvent in outbox: classId={}, bookings={}",
+            classId, savedBookings.size());
+
+        return savedBookings;
+    }
+
+    /**
+     * Members of the group booked concurrently, after the batched INSERT hit the unique constraint.
+     * Looked up in a fresh transaction (this one is aborted); the conflicting booking has committed,
+     * or the INSERT would still be waiting on it.
+     */
+    private List<String> collidingUserNames(Long classId, List<String> userNames) {
+        List<String> booked = freshReadTransaction.execute(
+                status -> bookingRepository.findBookedUserNames(classId, userNames));
+        return booked == null || booked.isEmpty() ? userNames : booked;
+    }
+
+    /**
+     * Claim spots against the hot inventory counter in Redis when the class is hot,
+     * otherwise through Class Service, all or nothing. Registers the matching compensation.
+     */
+    private void reserveSpots(Long classId, int seats) {
+        // Sold-out fast path: no Redis or gRPC hop for classes known to be full
+        availabilityCache.rejectIfKnownUnavailable(classId);
+
+        long snapshot = availabilityCache.snapshot();
+        HotInventory.Result hotResult = hotInventoryClient.tryReserve(classId, seats);
+
+        if (hotResult == HotInventory.Result.REJECTED) {
+            throw classServiceClient.classFull(classId, seats, snapshot);
+        }
+
+        if (hotResult == HotInventory.Result.APPLIED) {
+            releaseSpotOnRollback(classId, () -> releaseHotSpots(classId, seats));
+        } else {
+            String reservationId = classServiceClient.reserveSpots(classId, seats);
+            releaseSpotOnRollback(classId, () -> classServiceClient.releaseSpots(classId, seats, reservationId));
+        }
+    }
+
+    /**
+     * Give back seats claimed from the Redis counter. If the class left hot mode since the claim,
+     * the claimed seats were written back to Postgres as taken: Class Service releases them there.
+     * A rejected release (the counter would exceed the class size) leaves the seats claimed.
+     */
+    private void releaseHotSpots(Long classId, int seats) {
+        HotInventory.Result result = hotInventoryClient.tryRelease(classId, seats);
+        if (result == HotInventory.Result.APPLIED) {
+            return;
+        }
+
+        bookingMetrics.countUnappliedHotRelease(result);
+        if (result == HotInventory.Result.NOT_HOT) {
+            log.warn("Class {} left hot inventory mode before its {} spot(s) were released, releasing through Class Service",
+                    classId, seats);
+            classServiceClient.releaseSpots(classId, seats);
+        } else {
+            log.error("Hot inventory counter of class {} refused the release of {} spot(s), they stay claimed",
+                    classId, seats);
+        }
+    }
+
+    /**
+     * Compensation: hand the spot back if the booking transaction does not commit
+     */
+    private void releaseSpotOnRollback(Long classId, Runnable release) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    log.warn("Booking for class {} rolled back, releasing reserved spots", classId);
+                    release.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Domain exception: the user already holds a booking for this class
+     */
+    public static class AlreadyBookedException extends RuntimeException {
+        public AlreadyBookedException(Long classId, String userName) {
+            super("User " + userName + " has already booked class " + classId);
+        }
+
+        public AlreadyBookedException(Long classId, Collection<String> userNames) {
+            super("Users " + userNames + " have already booked class " + classId);
+        }
+    }
 }
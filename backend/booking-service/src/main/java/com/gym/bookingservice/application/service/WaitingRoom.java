@@ -0,0 +1,208 @@
+package com.gym.bookingservice.application.service;
+
+import com.gym.bookingservice.application.dto.WaitingRoomResponse;
+import com.gym.bookingservice.infrastructure.grpc.ClassAvailabilityCache;
+import com.gym.bookingservice.infrastructure.grpc.ClassServiceGrpcClient;
+import com.gym.bookingservice.infrastructure.redis.WaitingRoomStore;
+import com.gym.shared.grpc.GetClassResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Application Service: Per-class virtual waiting room in front of createBooking
+ *
+ * Business flow:
+ * 1. Known sold-out classes are rejected before a ticket is issued
+ * 2. Every other request takes a FIFO ticket for its class, one per user (or group):
+ *    a retry or a second tab gets the ticket it already holds
+ * 3. Tickets are admitted at a fixed rate per class (token bucket with burst);
+ *    under normal load a new ticket is admitted on the spot
+ * 4. A ticket queued behind more users than there are seats left is rejected at once
+ * 5. Everyone else gets 202 with a signed ticket and retries with it after Retry-After
+ *
+ * Single bookings, group bookings and waitlist promotions all book through this queue.
+ * Fails open: if Redis is unavailable, requests go straight through.
+ */
+@Service
+public class WaitingRoom {
+
+    public static final String TICKET_HEADER = "X-Queue-Ticket";
+
+    private static final Logger log = LoggerFactory.getLogger(WaitingRoom.class);
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private final WaitingRoomStore waitingRoomStore;
+    private final ClassAvailabilityCache availabilityCache;
+    private final boolean enabled;
+    private final SecretKeySpec ticketKey;
+
+    public WaitingRoom(WaitingRoomStore waitingRoomStore,
+                       ClassAvailabilityCache availabilityCache,
+                       @Value("${app.waiting-room.enabled:true}") boolean enabled,
+                       @Value("${app.waiting-room.ticket-secret:}") String ticketSecret) {
+        this.waitingRoomStore = waitingRoomStore;
+        this.availabilityCache = availabilityCache;
+        this.enabled = enabled;
+        this.ticketKey = new SecretKeySpec(
+                ticketSecret.isBlank() ? generateSecret() : checkedSecret(ticketSecret), HMAC_ALGORITHM);
+    }
+
+    /**
+     * @param ticketToken ticket from an earlier 202 response, or null on the first attempt
+     * @return empty if the request is admitted, otherwise the queue ticket to retry with
+     * @throws ClassServiceGrpcClient.ClassFullException if the class is sold out or the
+     *         queue ahead is longer than the seats left
+     * @throws InvalidTicketException if the ticket was not issued for this class and user
+     */
+    public Optional<WaitingRoomResponse> enter(Long classId, String userName, String ticketToken) {
+        return enterAs(classId, userName, ticketToken);
+    }
+
+    /**
+     * Same as {@link #enter(Long, String, String)} for a group booking: one ticket for the whole group
+     */
+    public Optional<WaitingRoomResponse> enter(Long classId, List<String> userNames, String ticketToken) {
+        return enterAs(classId, userNames.stream().sorted().collect(Collectors.joining(",")), ticketToken);
+    }
+
+    /**
+     * Wait in the class's queue until one booking for the user may go ahead (waitlist promotion).
+     * Never rejected: the user is already first in line for a seat that came back.
+     * The user's ticket outlives a timeout, so waiting again later keeps the place in the queue.
+     *
+     * @return false if not admitted within {@code timeout}
+     */
+    public boolean awaitAdmission(Long classId, String userName, Duration timeout) throws InterruptedException {
+        if (!enabled) {
+            return true;
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long ticket = 0;
+        while (true) {
+            WaitingRoomStore.Admission admission;
+            try {
+                admission = waitingRoomStore.admit(classId, userName, ticket);
+            } catch (RuntimeException e) {
+                log.warn("Waiting room unavailable, admitting promotion for class {}: {}", classId, e.getMessage());
+                return true;
+            }
+            if (admission.isAdmitted()) {
+                return true;
+            }
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMs <= 0) {
+                return false;
+            }
+            ticket = admission.ticket();
+            TimeUnit.MILLISECONDS.sleep(Math.min(remainingMs, Math.max(100,
+                    (long) Math.ceil(admission.position() * 1000 / waitingRoomStore.getAdmitRatePerSecond()))));
+        }
+    }
+
+    private Optional<WaitingRoomResponse> enterAs(Long classId, String holder, String ticketToken) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        availabilityCache.rejectIfKnownUnavailable(classId);
+
+        long ticket = ticketToken == null ? 0 : verify(classId, holder, ticketToken);
+
+        WaitingRoomStore.Admission admission;
+        try {
+            admission = waitingRoomStore.admit(classId, holder, ticket);
+        } catch (RuntimeException e) {
+            log.warn("Waiting room unavailable, admitting booking for class {}: {}", classId, e.getMessage());
+            return Optional.empty();
+        }
+
+        if (admission.isAdmitted()) {
+            return Optional.empty();
+        }
+
+        GetClassResponse cached = availabilityCache.get(classId);
+        if (cached != null && cached.getExists() && admission.position() > cached.getAvailableSpots()) {
+            throw new ClassServiceGrpcClient.ClassFullException("Class with ID " + classId + " has "
+                    + cached.getAvailableSpots() + " spots left for " + admission.position() + " requests ahead");
+        }
+
+        long retryAfterSeconds = Math.max(1,
+                (long) Math.ceil(admission.position() / waitingRoomStore.getAdmitRatePerSecond()));
+        return Optional.of(new WaitingRoomResponse(
+                sign(classId, holder, admission.ticket()), admission.position(), retryAfterSeconds));
+    }
+
+    /**
+     * Ticket token: "{ticket}.{hmac}", bound to class and holder so it cannot be passed on or forged
+     */
+    private String sign(Long classId, String holder, long ticket) {
+        return ticket + "." + mac(classId, holder, ticket);
+    }
+
+    private long verify(Long classId, String holder, String ticketToken) {
+        int separator = ticketToken.indexOf('.');
+        try {
+            long ticket = Long.parseLong(ticketToken.substring(0, separator));
+            String expected = mac(classId, holder, ticket);
+            if (ticket > 0 && MessageDigest.isEqual(
+                    expected.getBytes(StandardCharsets.UTF_8),
+                    ticketToken.substring(separator + 1).getBytes(StandardCharsets.UTF_8))) {
+                return ticket;
+            }
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            // fall through
+        }
+        throw new InvalidTicketException("Invalid queue ticket for class " + classId);
+    }
+
+    private String mac(Long classId, String holder, long ticket) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(ticketKey);
+            byte[] digest = mac.doFinal((classId + ":" + holder + ":" + ticket).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC not available", e);
+        }
+    }
+
+    private static byte[] checkedSecret(String ticketSecret) {
+        byte[] secret = ticketSecret.getBytes(StandardCharsets.UTF_8);
+        if (secret.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("app.waiting-room.ticket-secret must be at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        return secret;
+    }
+
+    private static byte[] generateSecret() {
+        log.warn("app.waiting-room.ticket-secret not set, signing queue tickets with a generated key "
+                + "(tickets are only valid on this instance)");
+        byte[] secret = new byte[MIN_SECRET_BYTES];
+        new SecureRandom().nextBytes(secret);
+        return secret;
+    }
+
+    /**
+     * Client error: tampered, foreign or malformed queue ticket
+     */
+    public static class InvalidTicketException extends RuntimeException {
+        public InvalidTicketException(String message) {
+            super(message);
+        }
+    }
+}
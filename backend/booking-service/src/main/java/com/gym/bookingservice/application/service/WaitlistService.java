@@ -0,0 +1,202 @@
+package com.gym.bookingservice.application.service;
+
+import com.gym.bookingservice.application.dto.WaitlistPositionResponse;
+import com.gym.bookingservice.domain.model.Booking;
+import com.gym.bookingservice.infrastructure.grpc.ClassAvailabilityCache;
+import com.gym.bookingservice.infrastructure.grpc.ClassServiceGrpcClient;
+import com.gym.bookingservice.infrastructure.redis.WaitlistStore;
+import com.gym.shared.events.ClassCapacityChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Application Service: Waitlist for full classes
+ *
+ * Responsibilities:
+ * - Queue users for a full class instead of letting them retry POST /bookings
+ * - Promote the head of the queue into a real booking when a seat comes back
+ *   (triggered by the class-capacity-changed broadcast)
+ *
+ * Promotion books through BookingService, so it takes the same reservation,
+ * outbox and compensation path as any other booking, and waits its turn in the class's
+ * waiting room like any other booking request. Each user is claimed before
+ * booking and released in a finally block if no seat came of it. A claim left by a crashed
+ * instance goes back to the queue once its lease runs out, at the next promotion of that class.
+ *
+ * The wait for admission is bounded by half the claim's lease. If it takes longer, the user goes
+ * back to their place and the promotion is rescheduled (their waiting room ticket keeps its
+ * place). Once admitted, the lease is renewed; a claim that is no longer this promoter's
+ * (it ran out and was recovered) is left alone and nobody is booked.
+ */
+@Service
+public class WaitlistService {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistService.class);
+
+    private final WaitlistStore waitlistStore;
+    private final BookingService bookingService;
+    private final ClassAvailabilityCache availabilityCache;
+    private final WaitingRoom waitingRoom;
+    private final SimpleAsyncTaskExecutor promotions;
+    private final Set<Long> scheduledPromotions = ConcurrentHashMap.newKeySet();
+
+    public WaitlistService(WaitlistStore waitlistStore,
+                           BookingService bookingService,
+                           ClassAvailabilityCache availabilityCache,
+                           WaitingRoom waitingRoom,
+                           Environment environment) {
+        this.waitlistStore = waitlistStore;
+        this.bookingService = bookingService;
+        this.availabilityCache = availabilityCache;
+        this.waitingRoom = waitingRoom;
+        this.promotions = new SimpleAsyncTaskExecutor("waitlist-promotion-");
+        // Same switch as @ConditionalOnThreading: spring.threads.virtual.enabled on a JDK 21+ runtime
+        this.promotions.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+    }
+
+    /**
+     * Join the waitlist (idempotent: re-joining keeps the original place)
+     *
+     * A seat may have come back between the rejected booking and this call, and its
+     * broadcast is gone, so a promotion is started in the background. The response
+     * is the place in the queue; the client polls position() to see the booking.
+     */
+    public WaitlistPositionResponse join(Long classId, String userName) {
+        if (waitlistStore.join(classId, userName)) {
+            log.info("User {} joined the waitlist of class {}", userName, classId);
+        }
+
+        WaitlistPositionResponse response = position(classId, userName);
+        promoteAsync(classId);
+        return response;
+    }
+
+    /**
+     * Current place in the queue, or the booking if the user was promoted
+     *
+     * @throws NotOnWaitlistException if the user is neither waiting nor recently promoted
+     */
+    public WaitlistPositionResponse position(Long classId, String userName) {
+        Optional<Long> rank = waitlistStore.rank(classId, userName);
+        if (rank.isPresent()) {
+            return WaitlistPositionResponse.waiting(classId, userName, rank.get() + 1);
+        }
+
+        return waitlistStore.findPromotedBooking(classId, userName)
+                .map(bookingId -> WaitlistPositionResponse.promoted(classId, userName, bookingId))
+                .orElseThrow(() -> new NotOnWaitlistException(classId, userName));
+    }
+
+    public void leave(Long classId, String userName) {
+        if (!waitlistStore.leave(classId, userName)) {
+            throw new NotOnWaitlistException(classId, userName);
+        }
+    }
+
+    /**
+     * Book waiting users, oldest first, until the class is full or nobody is left
+     */
+    public void promote(Long classId) {
+        long recovered = waitlistStore.recoverExpiredClaims(classId);
+        if (recovered > 0) {
+            log.warn("Returned {} abandoned waitlist claim(s) of class {} to the queue", recovered, classId);
+        }
+
+        Optional<WaitlistStore.Claim> head;
+        while ((head = waitlistStore.claimHead(classId)).isPresent()) {
+            WaitlistStore.Claim claim = head.get();
+            String userName = claim.userName();
+            boolean settled = false;
+            boolean owned = true;
+            boolean admitted = true;
+
+            try {
+                if (!waitingRoom.awaitAdmission(classId, userName, waitlistStore.getClaimLease().dividedBy(2))) {
+                    admitted = false;
+                    log.info("Waiting room still busy for {} on class {}, retrying the promotion", userName, classId);
+                    return;
+                }
+                if (!waitlistStore.renew(classId, claim)) {
+                    owned = false;
+                    log.warn("Waitlist claim of {} on class {} ran out before the booking, left to its new promoter",
+                            userName, classId);
+                    return;
+                }
+                Booking booking = bookingService.createBooking(classId, userName);
+                settled = true;
+                waitlistStore.markPromoted(classId, userName, booking.getId());
+                log.info("Promoted {} from the waitlist of class {} (booking {})", userName, classId, booking.getId());
+            } catch (BookingService.AlreadyBookedException e) {
+                settled = true;
+                log.info("Dropping {} from the waitlist of class {}: already booked", userName, classId);
+            } catch (ClassServiceGrpcClient.ClassFullException e) {
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Keep the place; the next capacity change retries
+                log.warn("Waitlist promotion for class {} failed: {}", classId, e.getMessage());
+                return;
+            } finally {
+                if (settled) {
+                    waitlistStore.complete(classId, claim);
+                } else if (owned) {
+                    waitlistStore.release(classId, claim);
+                }
+                if (!admitted) {
+                    // Back at their place first, so the next run claims the same user
+                    promoteAsync(classId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Run promote() off the caller's thread; at most one pending run per class,
+     * a join during a run schedules the next one
+     */
+    private void promoteAsync(Long classId) {
+        if (!scheduledPromotions.add(classId)) {
+            return;
+        }
+        promotions.execute(() -> {
+            scheduledPromotions.remove(classId);
+            try {
+                promote(classId);
+            } catch (RuntimeException e) {
+                // Claims are released or expire; the next join or capacity change retries
+                log.warn("Waitlist promotion for class {} failed: {}", classId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Redis listener callback: a seat came back (or availability is unknown), start a promotion
+     */
+    public void handleCapacityChanged(ClassCapacityChangedEvent event) {
+        if (event.isSoldOut()) {
+            return;
+        }
+        // The cache listener may not have run yet: never promote against a stale sold-out entry
+        availabilityCache.invalidate(event.getClassId());
+        promoteAsync(event.getClassId());
+    }
+
+    /**
+     * Client error: user is not on the class's waitlist
+     */
+    public static class NotOnWaitlistException extends RuntimeException {
+        public NotOnWaitlistException(Long classId, String userName) {
+            super("User " + userName + " is not on the waitlist of class " + classId);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.gym.bookingservice.infrastructure.grpc;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gym.shared.events.ClassCapacityChangedEvent;
+import com.gym.shared.grpc.GetClassResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Infrastructure Layer: In-process near-cache in front of Class Service
+ *
+ * - classes: recent GetClass answers (including "does not exist"), bounded and short-lived
+ * - soldOut: classes known to be full, so doomed bookings are rejected without a network hop
+ *
+ * Both are bounded (size-based eviction) and expire on their own, so a missed
+ * invalidation broadcast can only make an entry stale for one TTL.
+ *
+ * Answers are cached against the {@link #snapshot()} taken before their call: an answer
+ * older than the class's last invalidation (e.g. a rejected ReserveSpot overtaken by a
+ * release broadcast) is dropped instead of caching the class as sold out.
+ */
+@Component
+public class ClassAvailabilityCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ClassAvailabilityCache.class);
+
+    private final Cache<Long, GetClassResponse> classes;
+    private final Cache<Long, Boolean> soldOut;
+    private final AtomicLong invalidations = new AtomicLong();
+    // classId -> value of invalidations when the class was last invalidated
+    private final Cache<Long, Long> invalidatedAt;
+
+    public ClassAvailabilityCache(@Value("${app.class-cache.max-size:10000}") long maxSize,
+                                  @Value("${app.class-cache.ttl-ms:2000}") long ttlMs,
+                                  @Value("${app.class-cache.sold-out-ttl-ms:30000}") long soldOutTtlMs) {
+        this.classes = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+        this.soldOut = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(soldOutTtlMs))
+                .build();
+        this.invalidatedAt = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(Math.max(ttlMs, soldOutTtlMs)))
+                .build();
+    }
+
+    /**
+     * Take before a Class Service call whose answer is passed to put/markSoldOut
+     */
+    public long snapshot() {
+        return invalidations.get();
+    }
+
+    /**
+     * Fail fast for classes we already know cannot be booked
+     *
+     * @throws ClassServiceGrpcClient.ClassNotFoundException if the class is cached as missing
+     * @throws ClassServiceGrpcClient.ClassFullException if the class is in the sold-out set
+     */
+    public void rejectIfKnownUnavailable(Long classId) {
+        if (soldOut.getIfPresent(classId) != null) {
+            throw new ClassServiceGrpcClient.ClassFullException("Class with ID " + classId + " is fully booked");
+        }
+
+        GetClassResponse cached = classes.getIfPresent(classId);
+        if (cached != null && !cached.getExists()) {
+            throw new ClassServiceGrpcClient.ClassNotFoundException("Class with ID " + classId + " does not exist");
+        }
+    }
+
+    public GetClassResponse get(Long classId) {
+        return classes.getIfPresent(classId);
+    }
+
+    public void put(Long classId, GetClassResponse response, long snapshot) {
+        classes.put(classId, response);
+        if (response.getExists() && response.getAvailableSpots() <= 0) {
+            soldOut.put(classId, Boolean.TRUE);
+        }
+        dropIfStale(classId, snapshot);
+    }
+
+    public void markMissing(Long classId, long snapshot) {
+        classes.put(classId, GetClassResponse.newBuilder().setExists(false).build());
+        dropIfStale(classId, snapshot);
+    }
+
+    public void markSoldOut(Long classId, long snapshot) {
+        soldOut.put(classId, Boolean.TRUE);
+        dropIfStale(classId, snapshot);
+    }
+
+    public void invalidate(Long classId) {
+        // Recorded before the entries go: a concurrent put either sees it or is removed here
+        invalidatedAt.put(classId, invalidations.incrementAndGet());
+        classes.invalidate(classId);
+        soldOut.invalidate(classId);
+    }
+
+    /**
+     * Checked after the put, so an invalidation racing the put cannot be missed
+     */
+    private void dropIfStale(Long classId, long snapshot) {
+        Long invalidated = invalidatedAt.getIfPresent(classId);
+        if (invalidated != null && invalidated > snapshot) {
+            log.debug("Dropping stale availability of class {}", classId);
+            classes.invalidate(classId);
+            soldOut.invalidate(classId);
+        }
+    }
+
+    /**
+     * Handle ClassCapacityChangedEvent from Redis
+     *
+     * Called by Redis MessageListenerAdapter (method name configured in RedisConfig).
+     */
+    public void handleCapacityChanged(ClassCapacityChangedEvent event) {
+        log.debug("Capacity changed for class {} (available: {})", event.getClassId(), event.getAvailableSpots());
+
+        invalidate(event.getClassId());
+        if (event.isSoldOut()) {
+            soldOut.put(event.getClassId(), Boolean.TRUE);
+        }
+    }
+}
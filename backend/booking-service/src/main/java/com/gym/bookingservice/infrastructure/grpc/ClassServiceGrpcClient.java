@@ -3,21 +3,90 @@ package com.gym.bookingservice.infrastructure.grpc;
 import com.gym.shared.grpc.ClassServiceGrpc;
 import com.gym.shared.grpc.GetClassRequest;
 import com.gym.shared.grpc.GetClassResponse;
+import com.gym.shared.grpc.GetClassesRequest;
+import com.gym.shared.grpc.GetClassesResponse;
+import com.gym.shared.grpc.ReleaseSpotRequest;
+import com.gym.shared.grpc.ReleaseSpotResponse;
+import com.gym.shared.grpc.ReserveSpotRequest;
+import com.gym.shared.grpc.ReserveSpotResponse;
+import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Infrastructure Layer: gRPC Client for Class Service
  *
- * Encapsulates communication with Class Service
+ * Encapsulates communication with Class Service.
+ * Answers from the near-cache when it can; known sold-out or missing classes
+ * are rejected without a network hop. Remote calls carry a deadline and go
+ * through {@link ClassServiceResilience} (bulkhead, circuit breaker, hedging).
+ *
+ * Every seat claim carries a fresh request id, which makes the claim idempotent on
+ * the server and lets its release undo exactly that claim. A claim whose outcome is
+ * unknown (deadline, connection lost) is therefore released right away.
+ * Releases bypass the bulkhead and breaker, and failed ones are retried with backoff.
  */
 @Component
 public class ClassServiceGrpcClient {
 
+    private static final Logger log = LoggerFactory.getLogger(ClassServiceGrpcClient.class);
+
     @GrpcClient("class-service")
     private ClassServiceGrpc.ClassServiceBlockingStub classServiceStub;
 
+    @GrpcClient("class-service")
+    private ClassServiceGrpc.ClassServiceFutureStub classServiceFutureStub;
+
+    private final ClassAvailabilityCache availabilityCache;
+    private final ClassServiceResilience resilience;
+    private final long deadlineMs;
+    private final int releaseMaxAttempts;
+    private final long releaseBackoffMs;
+    private final ScheduledExecutorService releaseRetries;
+    private final AtomicInteger pendingReleases = new AtomicInteger();
+    private final Counter abandonedReleases;
+
+    public ClassServiceGrpcClient(ClassAvailabilityCache availabilityCache,
+                                  ClassServiceResilience resilience,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.class-service.deadline-ms:500}") long deadlineMs,
+                                  @Value("${app.class-service.release-max-attempts:8}") int releaseMaxAttempts,
+                                  @Value("${app.class-service.release-backoff-ms:200}") long releaseBackoffMs) {
+        this.availabilityCache = availabilityCache;
+        this.resilience = resilience;
+        this.deadlineMs = deadlineMs;
+        this.releaseMaxAttempts = releaseMaxAttempts;
+        this.releaseBackoffMs = releaseBackoffMs;
+        this.releaseRetries = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "class-service-release-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        meterRegistry.gauge("class_service.client.pending_releases", pendingReleases);
+        this.abandonedReleases = Counter.builder("class_service.client.abandoned_releases")
+                .description("Seat releases given up (seats stay claimed)")
+                .register(meterRegistry);
+    }
+
     /**
      * Validate that a class exists and has available spots
      *
@@ -27,28 +96,212 @@ public class ClassServiceGrpcClient {
      * @throws GrpcCommunicationException if gRPC call fails
      */
     public void validateClassAvailability(Long classId) {
-        try {
+        availabilityCache.rejectIfKnownUnavailable(classId);
+
+        GetClassResponse response = availabilityCache.get(classId);
+        if (response == null) {
+            long snapshot = availabilityCache.snapshot();
             GetClassRequest request = GetClassRequest.newBuilder()
                     .setId(classId)
                     .build();
 
-            GetClassResponse response = classServiceStub.getClass(request);
+            response = resilience.executeHedged("GetClass", () -> futureStub().getClass(request));
+            availabilityCache.put(classId, response, snapshot);
+        }
+
+        // Check if class exists
+        if (!response.getExists()) {
+            throw new ClassNotFoundException("Class with ID " + classId + " does not exist");
+        }
 
-            // Check if class exists
-            if (!response.getExists()) {
-                throw new ClassNotFoundException("Class with ID " + classId + " does not exist");
+        // Check if class has available spots
+        if (response.getAvailableSpots() <= 0) {
+            throw new ClassFullException("Class with ID " + classId + " is fully booked");
+        }
+    }
+
+    /**
+     * Fetch many classes in one round trip
+     * Near-cache hits are served locally; only the misses go over the wire.
+     *
+     * @param classIds The IDs to look up (duplicates are fine)
+     * @return classId -> class info; ids of classes that don't exist are absent
+     * @throws GrpcCommunicationException if gRPC call fails
+     */
+    public Map<Long, GetClassResponse> getClasses(Collection<Long> classIds) {
+        Map<Long, GetClassResponse> result = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long classId : new HashSet<>(classIds)) {
+            GetClassResponse cached = availabilityCache.get(classId);
+            if (cached == null) {
+                misses.add(classId);
+            } else if (cached.getExists()) {
+                result.put(classId, cached);
             }
+        }
+
+        if (misses.isEmpty()) {
+            return result;
+        }
+
+        long snapshot = availabilityCache.snapshot();
+        GetClassesRequest request = GetClassesRequest.newBuilder()
+                .addAllIds(misses)
+                .build();
+
+        GetClassesResponse response = resilience.executeHedged("GetClasses", () -> futureStub().getClasses(request));
+
+        response.getClassesList().forEach(classInfo -> {
+            availabilityCache.put(classInfo.getId(), classInfo, snapshot);
+            result.put(classInfo.getId(), classInfo);
+        });
+        return result;
+    }
+
+    /**
+     * Atomically claim {@code seats} spots in a class, all or nothing
+     * (one round trip, no read-then-write)
+     *
+     * @param classId The ID of the class to reserve spots in
+     * @param seats Number of spots to claim
+     * @return the claim's request id, for {@link #releaseSpots(Long, int, String)}
+     * @throws ClassNotFoundException if class doesn't exist
+     * @throws ClassFullException if fewer than {@code seats} spots are left
+     * @throws GrpcCommunicationException if gRPC call fails
+     */
+    public String reserveSpots(Long classId, int seats) {
+        availabilityCache.rejectIfKnownUnavailable(classId);
+        long snapshot = availabilityCache.snapshot();
 
-            // Check if class has available spots
-            if (response.getAvailableSpots() <= 0) {
-                throw new ClassFullException("Class with ID " + classId + " is fully booked");
+        String requestId = UUID.randomUUID().toString();
+        ReserveSpotRequest request = ReserveSpotRequest.newBuilder()
+                .setClassId(classId)
+                .setCount(seats)
+                .setRequestId(requestId)
+                .build();
+
+        // Never hedged: a hedge would be a second claim with the same id, answered from the ledger
+        ReserveSpotResponse response;
+        try {
+            response = resilience.execute("ReserveSpot", () -> stub().reserveSpot(request));
+        } catch (GrpcCommunicationException e) {
+            if (e.getCause() instanceof StatusRuntimeException) {
+                // The call went out and may have been applied (e.g. DEADLINE_EXCEEDED after the
+                // server committed). Releasing by id is a no-op if it was not, and cancels it if it is late.
+                releaseSpots(classId, seats, requestId);
             }
+            throw e;
+        }
 
-        } catch (StatusRuntimeException e) {
-            throw new GrpcCommunicationException(
-                    "Failed to communicate with Class Service: " + e.getMessage(), e
-            );
+        if (!response.getExists()) {
+            availabilityCache.markMissing(classId, snapshot);
+            throw new ClassNotFoundException("Class with ID " + classId + " does not exist");
         }
+
+        if (!response.getReserved()) {
+            throw classFull(classId, seats, snapshot);
+        }
+        return requestId;
+    }
+
+    /**
+     * Give back the spots claimed under {@code requestId} (compensation)
+     *
+     * Never throws, because this runs while the caller is already unwinding a failed
+     * booking. Sent outside the bulkhead and circuit breaker; if Class Service cannot be
+     * reached, the release is retried in the background with exponential backoff.
+     * Class Service applies a request id at most once, so retries are safe.
+     */
+    public void releaseSpots(Long classId, int seats, String requestId) {
+        ReleaseSpotRequest request = ReleaseSpotRequest.newBuilder()
+                .setClassId(classId)
+                .setCount(seats)
+                .setRequestId(requestId)
+                .build();
+        attemptRelease(request, 1);
+    }
+
+    /**
+     * Give back {@code seats} spots that were claimed without a request id, e.g. from the hot
+     * inventory counter of a class that has left hot mode since (compensation, never throws)
+     *
+     * Not idempotent on the server, so it is retried only while Class Service cannot be
+     * reached (UNAVAILABLE); any other failure gives the release up rather than risk
+     * releasing the seats twice.
+     */
+    public void releaseSpots(Long classId, int seats) {
+        ReleaseSpotRequest request = ReleaseSpotRequest.newBuilder()
+                .setClassId(classId)
+                .setCount(seats)
+                .build();
+        attemptRelease(request, 1);
+    }
+
+    private void attemptRelease(ReleaseSpotRequest request, int attempt) {
+        try {
+            ReleaseSpotResponse response = resilience.executeUnguarded("ReleaseSpot", () -> stub().releaseSpot(request));
+            if (!response.getReleased()) {
+                // Expected after a timed-out claim that never landed
+                log.info("Class Service held no spots for claim {} of class {}",
+                        request.getRequestId(), request.getClassId());
+            }
+
+        } catch (GrpcCommunicationException e) {
+            if (attempt >= releaseMaxAttempts || !retryable(request, e)) {
+                abandonedReleases.increment();
+                log.error("Giving up releasing {} spot(s) of class {} (claim {}) after {} attempts: {}",
+                        request.getCount(), request.getClassId(), request.getRequestId(), attempt, e.getMessage());
+                return;
+            }
+
+            long backoffMs = releaseBackoffMs << Math.min(attempt - 1, 10);
+            log.warn("Failed to release {} spot(s) of class {} (claim {}), retrying in {} ms: {}",
+                    request.getCount(), request.getClassId(), request.getRequestId(), backoffMs, e.getMessage());
+            pendingReleases.incrementAndGet();
+            releaseRetries.schedule(() -> {
+                pendingReleases.decrementAndGet();
+                attemptRelease(request, attempt + 1);
+            }, backoffMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * A release with a request id is applied at most once, so any failure may be retried;
+     * a one-shot release only if it cannot have reached Class Service
+     */
+    private static boolean retryable(ReleaseSpotRequest request, GrpcCommunicationException e) {
+        return !request.getRequestId().isEmpty()
+                || (e.getCause() instanceof StatusRuntimeException status
+                    && status.getStatus().getCode() == Status.Code.UNAVAILABLE);
+    }
+
+    @PreDestroy
+    void stopReleaseRetries() {
+        int pending = releaseRetries.shutdownNow().size();
+        if (pending > 0) {
+            log.error("{} seat releases still pending at shutdown", pending);
+        }
+    }
+
+    /**
+     * Rejected claim: only a single-seat rejection proves the class is sold out
+     *
+     * @param snapshot availability cache snapshot taken before the claim was sent
+     */
+    public ClassFullException classFull(Long classId, int seats, long snapshot) {
+        if (seats == 1) {
+            availabilityCache.markSoldOut(classId, snapshot);
+            return new ClassFullException("Class with ID " + classId + " is fully booked");
+        }
+        return new ClassFullException("Class with ID " + classId + " has fewer than " + seats + " spots left");
+    }
+
+    private ClassServiceGrpc.ClassServiceBlockingStub stub() {
+        return classServiceStub.withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS);
+    }
+
+    private ClassServiceGrpc.ClassServiceFutureStub futureStub() {
+        return classServiceFutureStub.withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS);
     }
 
     /**
@@ -0,0 +1,194 @@
+package com.gym.bookingservice.infrastructure.grpc;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Infrastructure Layer: Resilience around Class Service calls
+ *
+ * Every call goes through:
+ * - a bulkhead (bounded in-flight calls, fail fast when full)
+ * - a circuit breaker (open on failures/slow calls, half-open probing)
+ * - a latency timer tagged with method and outcome
+ *
+ * Idempotent reads can additionally be hedged: if the first attempt has not
+ * answered within the hedge delay a second one is sent and the first answer wins.
+ * Compensations skip the bulkhead and breaker (see {@link #executeUnguarded}).
+ * Deadlines are set per call on the stub by {@link ClassServiceGrpcClient}.
+ */
+@Component
+public class ClassServiceResilience {
+
+    static final String INSTANCE = "class-service";
+
+    private static final String CALL_TIMER = "class_service.client.calls";
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final MeterRegistry meterRegistry;
+    private final Counter hedgedCalls;
+    private final long hedgeDelayMs;
+
+    public ClassServiceResilience(CircuitBreakerRegistry circuitBreakerRegistry,
+                                  BulkheadRegistry bulkheadRegistry,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.class-service.hedge-delay-ms:0}") long hedgeDelayMs) {
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(INSTANCE);
+        this.bulkhead = bulkheadRegistry.bulkhead(INSTANCE);
+        this.meterRegistry = meterRegistry;
+        this.hedgedCalls = Counter.builder("class_service.client.hedged")
+                .description("Hedge attempts sent to Class Service")
+                .register(meterRegistry);
+        this.hedgeDelayMs = hedgeDelayMs;
+    }
+
+    /**
+     * Run a blocking stub call behind the bulkhead and circuit breaker
+     *
+     * @throws ClassServiceGrpcClient.GrpcCommunicationException if the call fails or is not permitted
+     */
+    public <T> T execute(String method, Supplier<T> call) {
+        return timed(method, Bulkhead.decorateSupplier(bulkhead,
+                CircuitBreaker.decorateSupplier(circuitBreaker, call)));
+    }
+
+    /**
+     * Run a compensating call (a seat release) without bulkhead and circuit breaker:
+     * it has to go out precisely while those are shedding load, or the seat stays claimed.
+     * Its outcome is not recorded by the breaker.
+     *
+     * @throws ClassServiceGrpcClient.GrpcCommunicationException if the call fails
+     */
+    public <T> T executeUnguarded(String method, Supplier<T> call) {
+        return timed(method, call);
+    }
+
+    private <T> T timed(String method, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return call.get();
+
+        } catch (CallNotPermittedException e) {
+            outcome = "circuit_open";
+            throw new ClassServiceGrpcClient.GrpcCommunicationException(
+                    "Class Service circuit breaker is open", e);
+
+        } catch (BulkheadFullException e) {
+            outcome = "bulkhead_full";
+            throw new ClassServiceGrpcClient.GrpcCommunicationException(
+                    "Too many concurrent calls to Class Service", e);
+
+        } catch (StatusRuntimeException e) {
+            outcome = e.getStatus().getCode().name();
+            throw new ClassServiceGrpcClient.GrpcCommunicationException(
+                    "Failed to communicate with Class Service: " + e.getMessage(), e);
+
+        } finally {
+            sample.stop(Timer.builder(CALL_TIMER)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Like {@link #execute}, but hedged. Only for idempotent calls.
+     * The hedge pair holds a single bulkhead permit and counts as one breaker call.
+     */
+    public <T> T executeHedged(String method, Supplier<ListenableFuture<T>> call) {
+        return execute(method, () -> hedge(call));
+    }
+
+    private <T> T hedge(Supplier<ListenableFuture<T>> call) {
+        ListenableFuture<T> primary = call.get();
+        if (hedgeDelayMs <= 0) {
+            return await(primary);
+        }
+
+        try {
+            return primary.get(hedgeDelayMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            hedgedCalls.increment();
+            ListenableFuture<T> hedge = call.get();
+            try {
+                return await(firstSuccessful(primary, hedge));
+            } finally {
+                primary.cancel(true);
+                hedge.cancel(true);
+            }
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Status.CANCELLED.withCause(e).asRuntimeException();
+        }
+    }
+
+    /**
+     * Completes with the first successful result, or with the last failure if both fail
+     */
+    private static <T> ListenableFuture<T> firstSuccessful(ListenableFuture<T> first, ListenableFuture<T> second) {
+        SettableFuture<T> winner = SettableFuture.create();
+        AtomicInteger failures = new AtomicInteger();
+
+        FutureCallback<T> callback = new FutureCallback<>() {
+            @Override
+            public void onSuccess(T result) {
+                winner.set(result);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                if (failures.incrementAndGet() == 2) {
+                    winner.setException(t);
+                }
+            }
+        };
+        Futures.addCallback(first, callback, MoreExecutors.directExecutor());
+        Futures.addCallback(second, callback, MoreExecutors.directExecutor());
+
+        return winner;
+    }
+
+    private static <T> T await(ListenableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Status.CANCELLED.withCause(e).asRuntimeException();
+        }
+    }
+
+    private static StatusRuntimeException unwrap(ExecutionException e) {
+        if (e.getCause() instanceof StatusRuntimeException statusException) {
+            return statusException;
+        }
+        return Status.fromThrowable(e.getCause()).asRuntimeException();
+    }
+}
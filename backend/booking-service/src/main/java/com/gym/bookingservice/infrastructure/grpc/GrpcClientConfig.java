@@ -0,0 +1,24 @@
+package com.gym.bookingservice.infrastructure.grpc;
+
+import net.devh.boot.grpc.client.channelfactory.GrpcChannelConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+/**
+ * gRPC client configuration for virtual-thread mode
+ *
+ * Response callbacks (including hedged future-stub calls) run on virtual threads
+ * instead of the channel's default platform-thread pool.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class GrpcClientConfig {
+
+    @Bean
+    public GrpcChannelConfigurer virtualThreadChannelConfigurer() {
+        return (channelBuilder, name) -> channelBuilder.executor(new VirtualThreadTaskExecutor("grpc-client-" + name + "-"));
+    }
+}
@@ -0,0 +1,19 @@
+package com.gym.bookingservice.infrastructure.grpc;
+
+import com.gym.shared.metrics.GrpcMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.devh.boot.grpc.client.interceptor.GrpcGlobalClientInterceptor;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * gRPC client metrics: per-method timings of every call to Class Service
+ * (wire time per attempt; ClassServiceResilience times the call including hedging)
+ */
+@Configuration
+public class GrpcMetricsConfig {
+
+    @GrpcGlobalClientInterceptor
+    public GrpcMetricsInterceptor grpcMetricsInterceptor(MeterRegistry meterRegistry) {
+        return new GrpcMetricsInterceptor(meterRegistry);
+    }
+}
@@ -0,0 +1,83 @@
+package com.gym.bookingservice.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import com.gym.shared.inventory.HotInventory;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Infrastructure Layer: Booking pipeline metrics
+ *
+ * Where a booking's time goes after the Class Service call
+ * (timed by ClassServiceResilience and the gRPC interceptor):
+ * - booking.db.insert      INSERT of the booking row(s), flushed
+ * - booking.outbox.write   INSERT of the confirmation event into the outbox
+ * - outbox.relay.publish   pipelined XADD of one outbox batch to the Redis Stream
+ * - booking.failures       failed bookings, tagged with operation and exception type
+ * - booking.hot_inventory.unapplied_releases
+ *                          rollback releases the Redis counter did not take back, tagged with the result
+ *                          (not_hot: handed to Class Service instead, rejected: the seats stay claimed)
+ */
+@Component
+public class BookingMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Timer singleInsert;
+    private final Timer batchInsert;
+    private final Timer outboxWrite;
+    private final Timer relayPublish;
+
+    public BookingMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.singleInsert = timer("booking.db.insert", "single");
+        this.batchInsert = timer("booking.db.insert", "batch");
+        this.outboxWrite = Timer.builder("booking.outbox.write")
+                .description("Outbox event insert")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.relayPublish = Timer.builder("outbox.relay.publish")
+                .description("Pipelined XADD of one outbox batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public <T> T timeInsert(boolean batch, Supplier<T> insert) {
+        return (batch ? batchInsert : singleInsert).record(insert);
+    }
+
+    public <T> T timeOutboxWrite(Supplier<T> write) {
+        return outboxWrite.record(write);
+    }
+
+    public void timeRelayPublish(Runnable publish) {
+        relayPublish.record(publish);
+    }
+
+    public void countFailure(String operation, Throwable failure) {
+        Counter.builder("booking.failures")
+                .description("Failed bookings by exception type")
+                .tag("operation", operation)
+                .tag("exception", failure.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void countUnappliedHotRelease(HotInventory.Result result) {
+        Counter.builder("booking.hot_inventory.unapplied_releases")
+                .description("Rollback releases not applied to the hot inventory counter")
+                .tag("result", result.name().toLowerCase())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Timer timer(String name, String kind) {
+        return Timer.builder(name)
+                .description("Booking insert, flushed")
+                .tag("kind", kind)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
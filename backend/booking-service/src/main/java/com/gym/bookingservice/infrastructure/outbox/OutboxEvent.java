@@ -0,0 +1,84 @@
+package com.gym.bookingservice.infrastructure.outbox;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Transactional Outbox entry
+ *
+ * Written in the same transaction as the business change, so an event exists
+ * if and only if the change committed. The OutboxRelay appends the payload
+ * to a Redis Stream afterwards and deletes the row (at-least-once delivery).
+ */
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+
+    /** Pre-allocated ids let a batch booking write all its outbox rows in one batch */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_id_seq")
+    @SequenceGenerator(name = "outbox_events_id_seq", sequenceName = "outbox_events_id_seq", allocationSize = 50)
+    private Long id;
+
+    /** Destination Redis Stream key */
+    @Column(nullable = false, length = 100)
+    private String channel;
+
+    /** Event type, written next to the payload so consumers know how to decode it */
+    @Column(name = "event_type", nullable = false, length = 100)
+    private String eventType;
+
+    /** Encoding of the payload, relayed as the stream entry's "content-type" field */
+    @Column(name = "content_type", nullable = false, length = 100)
+    private String contentType;
+
+    /** Serialized event, exactly as it goes on the wire */
+    @Column(nullable = false)
+    private byte[] payload;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    // JPA requires no-arg constructor
+    protected OutboxEvent() {
+    }
+
+    private OutboxEvent(String channel, String eventType, String contentType, byte[] payload) {
+        this.channel = channel;
+        this.eventType = eventType;
+        this.contentType = contentType;
+        this.payload = payload;
+        this.createdAt = Instant.now();
+    }
+
+    /**
+     * Factory method: Create new outbox entry
+     */
+    public static OutboxEvent create(String channel, String eventType, String contentType, byte[] payload) {
+        return new OutboxEvent(channel, eventType, contentType, payload);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,101 @@
+package com.gym.bookingservice.infrastructure.outbox;
+
+import com.gym.bookingservice.infrastructure.metrics.BookingMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import com.gym.shared.events.BookingCreatedEvent;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Infrastructure Layer: Outbox relay
+ *
+ * Drains the outbox in batches: lock a batch, XADD it to its Redis Stream in ONE
+ * pipelined round trip, delete it, commit. If Redis fails the transaction
+ * rolls back and the batch is retried on the next run (at-least-once).
+ * Streams are capped with approximate MAXLEN trimming.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final XAddOptions addOptions;
+    private final BookingMetrics bookingMetrics;
+
+    public OutboxRelay(OutboxEventRepository outboxRepository,
+                       StringRedisTemplate redisTemplate,
+                       TransactionTemplate transactionTemplate,
+                       BookingMetrics bookingMetrics,
+                       @Value("${app.outbox.batch-size:200}") int batchSize,
+                       @Value("${app.outbox.stream-max-length:1000000}") long streamMaxLength) {
+        this.outboxRepository = outboxRepository;
+        this.redisTemplate = redisTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.addOptions = XAddOptions.maxlen(streamMaxLength).approximateTrimming(true);
+        this.bookingMetrics = bookingMetrics;
+    }
+
+    /**
+     * Keep relaying full batches until the outbox is drained
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:100}")
+    public void relay() {
+        try {
+            int relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Outbox relay failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxRepository.findByOrderByIdAsc(Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        bookingMetrics.timeRelayPublish(() -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            publishAll(connection, batch);
+            return null;
+        }));
+        outboxRepository.deleteAllInBatch(batch);
+
+        log.debug("Relayed {} outbox events", batch.size());
+        return batch.size();
+    }
+
+    private void publishAll(RedisConnection connection, List<OutboxEvent> batch) {
+        byte[] payloadField = BookingCreatedEvent.PAYLOAD_FIELD.getBytes(StandardCharsets.UTF_8);
+        byte[] typeField = BookingCreatedEvent.TYPE_FIELD.getBytes(StandardCharsets.UTF_8);
+        byte[] contentTypeField = BookingCreatedEvent.CONTENT_TYPE_FIELD.getBytes(StandardCharsets.UTF_8);
+        for (OutboxEvent event : batch) {
+            connection.streamCommands().xAdd(
+                    StreamRecords.rawBytes(Map.of(
+                                    typeField, event.getEventType().getBytes(StandardCharsets.UTF_8),
+                                    contentTypeField, event.getContentType().getBytes(StandardCharsets.UTF_8),
+                                    payloadField, event.getPayload()))
+                            .withStreamKey(event.getChannel().getBytes(StandardCharsets.UTF_8)),
+                    addOptions);
+        }
+    }
+}
@@ -1,26 +1,49 @@
 package com.gym.bookingservice.infrastructure.persistence;
 
 import com.gym.bookingservice.domain.model.Booking;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Infrastructure Layer: JPA Repository for Bookings
  *
  * Simplified approach: Spring Data JPA works directly with domain model
+ *
+ * Listings are keyset-paginated on (created_at, id), newest first: each page
+ * continues from the last row of the previous one ("WHERE (created_at, id) < ..."),
+ * so page cost stays constant however deep the client scrolls.
+ * Filtered listings go through {@link BookingSpecifications}.
  */
 @Repository
-public interface BookingJpaRepository extends JpaRepository<Booking, Long> {
+public interface BookingJpaRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
+
+    /**
+     * Duplicate check, answered from the (class_id, user_name) unique index
+     */
+    boolean existsByClassIdAndUserName(Long classId, String userName);
 
     /**
-     * Find all bookings for a specific class
+     * Which of the given users already booked the class (group booking pre-check)
      */
-    List<Booking> findByClassId(Long classId);
+    @Query("SELECT b.userName FROM Booking b WHERE b.classId = :classId AND b.userName IN :userNames")
+    List<String> findBookedUserNames(@Param("classId") Long classId, @Param("userNames") Collection<String> userNames);
 
     /**
-     * Find all bookings for a specific user
+     * One page of a (possibly filtered) listing in keyset order, continuing from {@code position}
      */
-    List<Booking> findByUserName(String userName);
+    default Window<Booking> findPage(Specification<Booking> filter, ScrollPosition position, int size) {
+        return findBy(filter.and(BookingSpecifications.atOrBefore(position)), query -> query
+                .sortBy(BookingSpecifications.KEYSET_ORDER)
+                .limit(size)
+                .scroll(position));
+    }
 }
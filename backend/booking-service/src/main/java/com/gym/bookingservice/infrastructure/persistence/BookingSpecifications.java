@@ -0,0 +1,54 @@
+package com.gym.bookingservice.infrastructure.persistence;
+
+import com.gym.bookingservice.domain.model.Booking;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Infrastructure Layer: Composable filters for booking listings
+ *
+ * Each factory returns null for a missing value, which Specification.where/and ignore.
+ */
+public final class BookingSpecifications {
+
+    /** Keyset order shared by every booking listing: newest first, id as tie-breaker */
+    public static final Sort KEYSET_ORDER = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    private BookingSpecifications() {
+    }
+
+    public static Specification<Booking> hasClassId(Long classId) {
+        return classId == null ? null : (root, query, cb) -> cb.equal(root.get("classId"), classId);
+    }
+
+    public static Specification<Booking> hasUserName(String userName) {
+        return userName == null ? null : (root, query, cb) -> cb.equal(root.get("userName"), userName);
+    }
+
+    public static Specification<Booking> createdFrom(LocalDateTime from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+    }
+
+    public static Specification<Booking> createdBefore(LocalDateTime to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThan(root.get("createdAt"), to);
+    }
+
+    /**
+     * Range bound matching a forward keyset position, null on the first page.
+     *
+     * Spring Data renders the keyset as "created_at < ? OR (created_at = ? AND id < ?)", which
+     * Postgres can only apply as a filter: every row newer than the cursor would be read and
+     * dropped. This redundant bound becomes an index condition, so a page costs the same at any depth.
+     */
+    public static Specification<Booking> atOrBefore(ScrollPosition position) {
+        if (!(position instanceof KeysetScrollPosition keyset) || keyset.isInitial() || keyset.scrollsBackward()) {
+            return null;
+        }
+        LocalDateTime createdAt = (LocalDateTime) keyset.getKeys().get("createdAt");
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("createdAt"), createdAt);
+    }
+}
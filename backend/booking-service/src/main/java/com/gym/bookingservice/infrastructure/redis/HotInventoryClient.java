@@ -0,0 +1,59 @@
+package com.gym.bookingservice.infrastructure.redis;
+
+import com.gym.shared.events.ClassCapacityChangedEvent;
+import com.gym.shared.inventory.HotInventory;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Infrastructure Layer: Direct access to hot inventory seat counters
+ *
+ * For classes in hot inventory mode a seat is claimed with one Lua call
+ * against Redis, without going through Class Service or Postgres.
+ * Each call is observed ("redis.script"), so it shows up as a span of the booking's trace.
+ */
+@Component
+public class HotInventoryClient {
+
+    private static final RedisScript<Long> RESERVE_SCRIPT =
+            RedisScript.of(new ClassPathResource(HotInventory.RESERVE_SCRIPT), Long.class);
+    private static final RedisScript<Long> RELEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource(HotInventory.RELEASE_SCRIPT), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObservationRegistry observationRegistry;
+
+    public HotInventoryClient(StringRedisTemplate redisTemplate, ObservationRegistry observationRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.observationRegistry = observationRegistry;
+    }
+
+    /**
+     * Claim {@code seats} seats at once: either all of them or none
+     *
+     * @return APPLIED if the seats were claimed, REJECTED if fewer are left,
+     *         NOT_HOT if the class must be reserved through Class Service
+     */
+    public HotInventory.Result tryReserve(long classId, int seats) {
+        return HotInventory.Result.fromScript(runCounterScript("hot-inventory-reserve", RESERVE_SCRIPT, classId, seats));
+    }
+
+    public HotInventory.Result tryRelease(long classId, int seats) {
+        return HotInventory.Result.fromScript(runCounterScript("hot-inventory-release", RELEASE_SCRIPT, classId, seats));
+    }
+
+    private Long runCounterScript(String name, RedisScript<Long> script, long classId, int seats) {
+        return Observation.createNotStarted("redis.script", observationRegistry)
+                .contextualName("redis " + name)
+                .lowCardinalityKeyValue("script", name)
+                .observe(() -> redisTemplate.execute(script,
+                        List.of(HotInventory.classKey(classId), HotInventory.DIRTY_SET_KEY),
+                        String.valueOf(classId), ClassCapacityChangedEvent.CHANNEL, String.valueOf(seats)));
+    }
+}
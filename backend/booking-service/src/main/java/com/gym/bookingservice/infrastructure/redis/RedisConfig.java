@@ -3,39 +3,96 @@ package com.gym.bookingservice.infrastructure.redis;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.gym.bookingservice.application.service.WaitlistService;
+import com.gym.bookingservice.infrastructure.grpc.ClassAvailabilityCache;
 import com.gym.shared.events.BookingCreatedEvent;
+import com.gym.shared.events.BookingEventCodec;
+import com.gym.shared.events.ClassCapacityChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
-import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 /**
  * Redis Configuration for Publishing Events
+ * and for subscribing to capacity changes (near-cache invalidation)
  */
 @Configuration
 public class RedisConfig {
 
-    public static final String BOOKING_CREATED_CHANNEL = "booking-created";
+    public static final String BOOKING_EVENTS_STREAM = BookingCreatedEvent.STREAM;
 
+    /**
+     * Wire format of the booking events written to the outbox (app.outbox.event-encoding):
+     * JSON, readable by every Class Service version, until all instances decode protobuf
+     */
     @Bean
-    public RedisTemplate<String, BookingCreatedEvent> redisTemplate(RedisConnectionFactory connectionFactory) {
-        RedisTemplate<String, BookingCreatedEvent> template = new RedisTemplate<>();
-        template.setConnectionFactory(connectionFactory);
+    public BookingEventCodec bookingEventCodec(@Value("${app.outbox.event-encoding:json}") String encoding) {
+        return switch (encoding) {
+            case "protobuf" -> BookingEventCodec.protobuf();
+            case "json" -> BookingEventCodec.json(eventObjectMapper());
+            default -> throw new IllegalArgumentException("Unknown app.outbox.event-encoding: " + encoding);
+        };
+    }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            MessageListenerAdapter capacityChangedListenerAdapter,
+            MessageListenerAdapter waitlistPromotionListenerAdapter,
+            Environment environment) {
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        // Same switch as @ConditionalOnThreading: spring.threads.virtual.enabled on a JDK 21+ runtime
+        if (Threading.VIRTUAL.isActive(environment)) {
+            container.setTaskExecutor(new VirtualThreadTaskExecutor("redis-listener-"));
+        }
+        container.addMessageListener(capacityChangedListenerAdapter,
+            new ChannelTopic(ClassCapacityChangedEvent.CHANNEL));
+        container.addMessageListener(waitlistPromotionListenerAdapter,
+            new ChannelTopic(ClassCapacityChangedEvent.CHANNEL));
 
-        // Serialize key as String
-        template.setKeySerializer(new StringRedisSerializer());
+        return container;
+    }
+
+    @Bean
+    public MessageListenerAdapter capacityChangedListenerAdapter(ClassAvailabilityCache classAvailabilityCache) {
+        MessageListenerAdapter adapter =
+            new MessageListenerAdapter(classAvailabilityCache, "handleCapacityChanged");
+        adapter.setSerializer(
+            new Jackson2JsonRedisSerializer<>(new ObjectMapper(), ClassCapacityChangedEvent.class));
 
-        // ObjectMapper that supports Java 8 date/time (e.g. Instant)
+        return adapter;
+    }
+
+    /**
+     * A seat came back: promote the head of the class's waitlist
+     */
+    @Bean
+    public MessageListenerAdapter waitlistPromotionListenerAdapter(WaitlistService waitlistService) {
+        MessageListenerAdapter adapter =
+            new MessageListenerAdapter(waitlistService, "handleCapacityChanged");
+        adapter.setSerializer(
+            new Jackson2JsonRedisSerializer<>(new ObjectMapper(), ClassCapacityChangedEvent.class));
+
+        return adapter;
+    }
+
+    /**
+     * ObjectMapper that supports Java 8 date/time (e.g. Instant)
+     */
+    private static ObjectMapper eventObjectMapper() {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-
-        Jackson2JsonRedisSerializer<BookingCreatedEvent> serializer =
-            new Jackson2JsonRedisSerializer<>(objectMapper, BookingCreatedEvent.class);
-        template.setValueSerializer(serializer);
-
-        return template;
+        return objectMapper;
     }
 }
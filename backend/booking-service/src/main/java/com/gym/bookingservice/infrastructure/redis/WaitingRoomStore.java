@@ -0,0 +1,87 @@
+package com.gym.bookingservice.infrastructure.redis;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Infrastructure Layer: Per-class virtual waiting rooms in Redis
+ *
+ * One hash per class ({@code waiting-room:class:{id}}) and one Lua call per request:
+ * issue or look up a ticket, refill the class's token bucket, advance the admitted head.
+ * A second hash ({@code waiting-room:class:{id}:tickets}) keeps each holder's waiting ticket,
+ * so retries and extra tabs of the same user do not queue (and count) twice.
+ * Every class has its own bucket, so a rush on one class cannot use up the
+ * admission rate of the others.
+ * Each call is observed ("redis.script"), so it shows up as a span of the request's trace.
+ */
+@Component
+public class WaitingRoomStore {
+
+    private static final String KEY_PREFIX = "waiting-room:class:";
+    private static final String TICKETS_SUFFIX = ":tickets";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ADMIT_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/waiting-room-admit.lua"), List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final double admitRatePerSecond;
+    private final int burst;
+    private final long idleTtlMs;
+    private final ObservationRegistry observationRegistry;
+
+    public WaitingRoomStore(StringRedisTemplate redisTemplate,
+                            ObservationRegistry observationRegistry,
+                            @Value("${app.waiting-room.admit-rate-per-second:50}") double admitRatePerSecond,
+                            @Value("${app.waiting-room.burst:50}") int burst,
+                            @Value("${app.waiting-room.idle-ttl-ms:600000}") long idleTtlMs) {
+        this.redisTemplate = redisTemplate;
+        this.admitRatePerSecond = admitRatePerSecond;
+        this.burst = burst;
+        this.idleTtlMs = idleTtlMs;
+        this.observationRegistry = observationRegistry;
+    }
+
+    /**
+     * @param holder who the ticket is for (a user name, or a group of them)
+     * @param ticket a ticket issued earlier, or 0 for the holder's waiting ticket or a new one at the back of the queue
+     */
+    public Admission admit(long classId, String holder, long ticket) {
+        List<?> result = Observation.createNotStarted("redis.script", observationRegistry)
+                .contextualName("redis waiting-room-admit")
+                .lowCardinalityKeyValue("script", "waiting-room-admit")
+                .observe(() -> redisTemplate.execute(ADMIT_SCRIPT,
+                        List.of(KEY_PREFIX + classId, KEY_PREFIX + classId + TICKETS_SUFFIX),
+                        String.valueOf(ticket), String.valueOf(admitRatePerSecond),
+                        String.valueOf(burst), String.valueOf(idleTtlMs), holder));
+
+        return new Admission(((Number) result.get(0)).longValue(), ((Number) result.get(1)).longValue());
+    }
+
+    public double getAdmitRatePerSecond() {
+        return admitRatePerSecond;
+    }
+
+    /**
+     * @param ticket the caller's ticket
+     * @param head   every ticket up to and including this one is admitted
+     */
+    public record Admission(long ticket, long head) {
+
+        public boolean isAdmitted() {
+            return ticket <= head;
+        }
+
+        /** Tickets still ahead of this one, itself included (0 once admitted) */
+        public long position() {
+            return Math.max(0, ticket - head);
+        }
+    }
+}
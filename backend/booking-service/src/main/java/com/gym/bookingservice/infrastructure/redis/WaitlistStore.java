@@ -0,0 +1,158 @@
+package com.gym.bookingservice.infrastructure.redis;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Infrastructure Layer: Per-class waitlists in Redis
+ *
+ * - waitlist:class:{id}           sorted set, member = user name, score = join time (FIFO)
+ * - waitlist:class:{id}:claimed   sorted set, "join time:claim id:user name" -> lease deadline,
+ *                                 users handed to a promoter and not yet booked or put back
+ * - waitlist:class:{id}:promoted  hash, user name -> booking id, kept for a while
+ *                                 so a polling client can see it got a seat
+ *
+ * Join and position are single O(log n) commands (ZADD NX, ZRANK).
+ * Claiming pops the head and records the claim in one Lua call, so every waiting user goes to
+ * exactly one promoter, even with several instances, and is never lost: a claim that is neither
+ * completed nor released within its lease (the promoter crashed) goes back to the queue.
+ * Every claim has its own id: once a claim has been recovered and the user claimed again,
+ * the first promoter can neither renew, complete nor release the new claim.
+ */
+@Component
+public class WaitlistStore {
+
+    private static final String KEY_PREFIX = "waitlist:class:";
+    private static final String CLAIMED_SUFFIX = ":claimed";
+    private static final String PROMOTED_SUFFIX = ":promoted";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CLAIM_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/waitlist-claim.lua"), List.class);
+    private static final RedisScript<Long> RELEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/waitlist-release.lua"), Long.class);
+    private static final RedisScript<Long> RECOVER_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/waitlist-recover.lua"), Long.class);
+    private static final RedisScript<Long> RENEW_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/waitlist-renew.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration promotedTtl;
+    private final long claimLeaseMs;
+
+    public WaitlistStore(StringRedisTemplate redisTemplate,
+                         @Value("${app.waitlist.promoted-ttl-ms:86400000}") long promotedTtlMs,
+                         @Value("${app.waitlist.claim-lease-ms:60000}") long claimLeaseMs) {
+        this.redisTemplate = redisTemplate;
+        this.promotedTtl = Duration.ofMillis(promotedTtlMs);
+        this.claimLeaseMs = claimLeaseMs;
+    }
+
+    /**
+     * @return false if the user was already waiting (keeps the original place)
+     */
+    public boolean join(long classId, String userName) {
+        Boolean added = redisTemplate.opsForZSet().addIfAbsent(key(classId), userName, System.currentTimeMillis());
+        return Boolean.TRUE.equals(added);
+    }
+
+    /**
+     * @return 0-based place in the queue, or empty if the user is not waiting
+     */
+    public Optional<Long> rank(long classId, String userName) {
+        return Optional.ofNullable(redisTemplate.opsForZSet().rank(key(classId), userName));
+    }
+
+    public boolean leave(long classId, String userName) {
+        Long removed = redisTemplate.opsForZSet().remove(key(classId), userName);
+        return removed != null && removed > 0;
+    }
+
+    /**
+     * Take the longest-waiting user off the list, under a claim that must be completed or released
+     */
+    public Optional<Claim> claimHead(long classId) {
+        String claimId = UUID.randomUUID().toString();
+        List<?> head = redisTemplate.execute(CLAIM_SCRIPT,
+                List.of(key(classId), key(classId) + CLAIMED_SUFFIX), String.valueOf(claimLeaseMs), claimId);
+        if (head == null || head.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new Claim(head.get(0).toString(), head.get(1).toString(), claimId));
+    }
+
+    /**
+     * Start the claim's lease over (the promoter is about to book)
+     *
+     * @return false if the claim is no longer this promoter's: settled, recovered, or its lease ran out
+     */
+    public boolean renew(long classId, Claim claim) {
+        Long renewed = redisTemplate.execute(RENEW_SCRIPT,
+                List.of(key(classId) + CLAIMED_SUFFIX), claim.member(), String.valueOf(claimLeaseMs));
+        return renewed != null && renewed == 1;
+    }
+
+    public Duration getClaimLease() {
+        return Duration.ofMillis(claimLeaseMs);
+    }
+
+    /**
+     * The claimed user is settled (booked, or no longer needs a seat)
+     */
+    public void complete(long classId, Claim claim) {
+        redisTemplate.opsForZSet().remove(key(classId) + CLAIMED_SUFFIX, claim.member());
+    }
+
+    /**
+     * Put a claimed user back at their original place (promotion did not go through)
+     */
+    public void release(long classId, Claim claim) {
+        redisTemplate.execute(RELEASE_SCRIPT, List.of(key(classId), key(classId) + CLAIMED_SUFFIX), claim.member());
+    }
+
+    /**
+     * Put back users whose claim outlived its lease
+     *
+     * @return how many went back
+     */
+    public long recoverExpiredClaims(long classId) {
+        Long recovered = redisTemplate.execute(RECOVER_SCRIPT, List.of(key(classId), key(classId) + CLAIMED_SUFFIX));
+        return recovered != null ? recovered : 0;
+    }
+
+    public void markPromoted(long classId, String userName, long bookingId) {
+        String promotedKey = key(classId) + PROMOTED_SUFFIX;
+        redisTemplate.opsForHash().put(promotedKey, userName, String.valueOf(bookingId));
+        redisTemplate.expire(promotedKey, promotedTtl);
+    }
+
+    public Optional<Long> findPromotedBooking(long classId, String userName) {
+        Object bookingId = redisTemplate.opsForHash().get(key(classId) + PROMOTED_SUFFIX, userName);
+        return Optional.ofNullable(bookingId).map(id -> Long.parseLong(id.toString()));
+    }
+
+    private static String key(long classId) {
+        return KEY_PREFIX + classId;
+    }
+
+    /**
+     * A user handed to one promoter
+     *
+     * @param joinedAt the user's score in the queue, as Redis formats it
+     * @param claimId  unique to this claim
+     */
+    public record Claim(String userName, String joinedAt, String claimId) {
+
+        String member() {
+            return joinedAt + ":" + claimId + ":" + userName;
+        }
+    }
+}
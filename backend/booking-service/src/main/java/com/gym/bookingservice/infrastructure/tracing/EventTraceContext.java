@@ -0,0 +1,40 @@
+package com.gym.bookingservice.infrastructure.tracing;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Infrastructure Layer: Trace context for outgoing events
+ *
+ * Captures the current span as propagation headers (W3C traceparent), to be stored
+ * in the event so that Class Service continues the booking's trace when it applies it.
+ */
+@Component
+public class EventTraceContext {
+
+    private final Tracer tracer;
+    private final Propagator propagator;
+
+    public EventTraceContext(Tracer tracer, Propagator propagator) {
+        this.tracer = tracer;
+        this.propagator = propagator;
+    }
+
+    /**
+     * @return propagation headers of the current span, or null outside a trace
+     */
+    public Map<String, String> current() {
+        Span span = tracer.currentSpan();
+        if (span == null) {
+            return null;
+        }
+        Map<String, String> headers = new HashMap<>();
+        propagator.inject(span.context(), headers, Map::put);
+        return headers;
+    }
+}
@@ -0,0 +1,45 @@
+package com.gym.bookingservice.infrastructure.tracing;
+
+import com.gym.shared.tracing.JsonLinesSpanExporter;
+import io.micrometer.observation.ObservationPredicate;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+import java.nio.file.Path;
+
+/**
+ * Tracing configuration
+ *
+ * HTTP and gRPC spans come from Spring Boot's observation support (trace context
+ * travels in the traceparent header and in gRPC metadata); Redis scripts on the
+ * booking path are observed where they are called. Finished spans are appended
+ * to a local JSON-lines file, rotated by size.
+ *
+ * Scheduled pollers and actuator scrapes are not traced: they would flood the file with root spans.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public SpanExporter jsonLinesSpanExporter(@Value("${app.tracing.export-file:traces/booking-service.jsonl}") String exportFile,
+                                              @Value("${app.tracing.max-file-size-mb:100}") long maxFileSizeMb,
+                                              @Value("${app.tracing.max-files:5}") int maxFiles) {
+        return new JsonLinesSpanExporter(Path.of(exportFile), maxFileSizeMb * 1024 * 1024, maxFiles);
+    }
+
+    @Bean
+    public ObservationPredicate tracedWorkOnly() {
+        return (name, context) -> {
+            if (name.startsWith("tasks.scheduled")) {
+                return false;
+            }
+            if (context instanceof ServerRequestObservationContext request) {
+                return !request.getCarrier().getRequestURI().startsWith("/actuator");
+            }
+            return true;
+        };
+    }
+}
@@ -0,0 +1,17 @@
+-- Baseline: the schema as ddl-auto: update left it.
+-- Idempotent, so it also adopts databases that were created by Hibernate.
+
+CREATE TABLE IF NOT EXISTS bookings (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    class_id   BIGINT       NOT NULL,
+    user_name  VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+);
+
+-- Transactional outbox, drained in id order by OutboxRelay
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    channel    VARCHAR(100)             NOT NULL,
+    payload    BYTEA                    NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
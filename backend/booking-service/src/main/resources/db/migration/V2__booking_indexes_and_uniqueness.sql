@@ -0,0 +1,15 @@
+-- One booking per user and class.
+-- Fails if duplicates already exist: resolve them first, nothing is deleted here.
+-- Its index also serves existsByClassIdAndUserName.
+ALTER TABLE bookings
+    ADD CONSTRAINT uk_bookings_class_user UNIQUE (class_id, user_name);
+
+-- Keyset listings: WHERE <filter> AND (created_at, id) < (?, ?) ORDER BY created_at DESC, id DESC
+CREATE INDEX IF NOT EXISTS idx_bookings_class_created
+    ON bookings (class_id, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_user_created
+    ON bookings (user_name, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_created
+    ON bookings (created_at DESC, id DESC);
@@ -0,0 +1,11 @@
+-- IDENTITY columns -> pooled sequences (allocationSize 50 in the entities).
+-- Hibernate hands out the 50 ids below each nextval, so restart above the current max
+-- and keep INCREMENT BY in sync with allocationSize (checked at startup).
+
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS bookings_id_seq INCREMENT BY 50;
+SELECT setval('bookings_id_seq', COALESCE((SELECT max(id) FROM bookings), 0) + 50);
+
+ALTER TABLE outbox_events ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS outbox_events_id_seq INCREMENT BY 50;
+SELECT setval('outbox_events_id_seq', COALESCE((SELECT max(id) FROM outbox_events), 0) + 50);
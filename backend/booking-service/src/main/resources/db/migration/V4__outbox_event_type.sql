@@ -0,0 +1,4 @@
+-- Outbox rows carry their event type (relayed as the stream entry's "type" field).
+-- Rows written before this migration are all BookingCreatedEvents.
+ALTER TABLE outbox_events
+    ADD COLUMN IF NOT EXISTS event_type VARCHAR(100) NOT NULL DEFAULT 'BookingCreated';
@@ -0,0 +1,4 @@
+-- Outbox rows carry the encoding of their payload (relayed as the stream entry's "content-type" field).
+-- Rows written before this migration are all JSON.
+ALTER TABLE outbox_events
+    ADD COLUMN IF NOT EXISTS content_type VARCHAR(100) NOT NULL DEFAULT 'application/json';
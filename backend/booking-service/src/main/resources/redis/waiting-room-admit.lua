@@ -0,0 +1,47 @@
+-- Virtual waiting room of one class: FIFO tickets, admitted at a token-bucket rate
+-- KEYS[1] = waiting room hash (next = last issued ticket, head = highest admitted ticket,
+--           tokens, ts = last refill in ms)
+-- KEYS[2] = waiting tickets hash (holder -> ticket not admitted yet)
+-- ARGV[1] = ticket (0 = issue a new one), ARGV[2] = admissions per second,
+-- ARGV[3] = burst, ARGV[4] = idle ttl in ms, ARGV[5] = holder (user name or group)
+-- Returns {ticket, head}: the ticket is admitted if ticket <= head
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local rate = tonumber(ARGV[2])
+local burst = tonumber(ARGV[3])
+
+local state = redis.call('HMGET', KEYS[1], 'next', 'head', 'tokens', 'ts')
+local next = tonumber(state[1] or '0')
+local head = tonumber(state[2] or '0')
+local tokens = tonumber(state[3] or ARGV[3])
+local ts = tonumber(state[4] or now)
+
+local ticket = tonumber(ARGV[1])
+if ticket == 0 then
+    -- A retry without the ticket or a second tab keeps the holder's place instead of queueing twice
+    local held = tonumber(redis.call('HGET', KEYS[2], ARGV[5]) or '0')
+    if held > head then
+        ticket = held
+    else
+        next = next + 1
+        ticket = next
+        redis.call('HSET', KEYS[2], ARGV[5], ticket)
+    end
+end
+
+-- Refill, then admit waiting tickets in order while tokens last
+tokens = math.min(burst, tokens + (now - ts) * rate / 1000)
+local admit = math.min(next - head, math.floor(tokens))
+if admit > 0 then
+    head = head + admit
+    tokens = tokens - admit
+end
+
+if ticket <= head and tonumber(redis.call('HGET', KEYS[2], ARGV[5]) or '0') == ticket then
+    redis.call('HDEL', KEYS[2], ARGV[5])
+end
+
+redis.call('HSET', KEYS[1], 'next', next, 'head', head, 'tokens', tostring(tokens), 'ts', now)
+redis.call('PEXPIRE', KEYS[1], ARGV[4])
+redis.call('PEXPIRE', KEYS[2], ARGV[4])
+return {ticket, head}
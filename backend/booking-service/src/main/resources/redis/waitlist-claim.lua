@@ -0,0 +1,16 @@
+-- Hand the longest-waiting user of one class to a promoter: popped and claimed in one step,
+-- so a promoter that dies before booking leaves a claim behind instead of losing the user
+-- KEYS[1] = waitlist sorted set (user name -> join time)
+-- KEYS[2] = claims sorted set (join time .. ':' .. claim id .. ':' .. user name -> lease deadline in ms)
+-- ARGV[1] = lease in ms, ARGV[2] = claim id (unique per claim, so a user claimed again after
+--           their lease ran out is a different member, which the first promoter cannot settle)
+-- Returns {user name, join time}, or an empty list if nobody is waiting
+local head = redis.call('ZPOPMIN', KEYS[1])
+if #head == 0 then
+    return {}
+end
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+redis.call('ZADD', KEYS[2], now + tonumber(ARGV[1]), head[2] .. ':' .. ARGV[2] .. ':' .. head[1])
+return head
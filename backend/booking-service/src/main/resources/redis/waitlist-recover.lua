@@ -0,0 +1,14 @@
+-- Put users whose claim outlived its lease (the promoter crashed or hung) back at their place
+-- KEYS[1] = waitlist sorted set, KEYS[2] = claims sorted set
+-- Returns the number of users put back
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local expired = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', now)
+for _, claim in ipairs(expired) do
+    local first = string.find(claim, ':', 1, true)
+    local second = string.find(claim, ':', first + 1, true)
+    redis.call('ZADD', KEYS[1], string.sub(claim, 1, first - 1), string.sub(claim, second + 1))
+    redis.call('ZREM', KEYS[2], claim)
+end
+return #expired
@@ -0,0 +1,12 @@
+-- Put a claimed user back at their original place (the promotion did not go through)
+-- KEYS[1] = waitlist sorted set, KEYS[2] = claims sorted set
+-- ARGV[1] = claim (join time .. ':' .. claim id .. ':' .. user name)
+-- Returns 1 if the user went back, 0 if the claim was already settled or recovered
+if redis.call('ZREM', KEYS[2], ARGV[1]) == 0 then
+    return 0
+end
+
+local first = string.find(ARGV[1], ':', 1, true)
+local second = string.find(ARGV[1], ':', first + 1, true)
+redis.call('ZADD', KEYS[1], string.sub(ARGV[1], 1, first - 1), string.sub(ARGV[1], second + 1))
+return 1
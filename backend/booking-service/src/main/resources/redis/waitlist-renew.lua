@@ -0,0 +1,13 @@
+-- Extend the lease of a claim its promoter is still working on
+-- KEYS[1] = claims sorted set
+-- ARGV[1] = claim (join time .. ':' .. claim id .. ':' .. user name), ARGV[2] = lease in ms
+-- Returns 1 if renewed, 0 if the claim is gone or its lease already ran out (it may be recovered any moment)
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local deadline = redis.call('ZSCORE', KEYS[1], ARGV[1])
+if not deadline or tonumber(deadline) <= now then
+    return 0
+end
+redis.call('ZADD', KEYS[1], now + tonumber(ARGV[2]), ARGV[1])
+return 1
@@ -0,0 +1,47 @@
+package com.gym.bookingservice.application.rest;
+
+import com.gym.shared.security.JwtPrincipal;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CallerTest {
+
+    private static final JwtPrincipal ALICE = principal("alice", "ROLE_USER");
+    private static final JwtPrincipal DESK = principal("desk", "ROLE_ADMIN");
+
+    @Test
+    void authOffTakesTheRequestedUser() {
+        assertThatCode(() -> Caller.requireSelf(null, "bob")).doesNotThrowAnyException();
+        assertThatCode(() -> Caller.requireMember(null, List.of("bob", "carol"))).doesNotThrowAnyException();
+    }
+
+    @Test
+    void userActsForThemselvesOnly() {
+        assertThatCode(() -> Caller.requireSelf(ALICE, "alice")).doesNotThrowAnyException();
+        assertThatThrownBy(() -> Caller.requireSelf(ALICE, "bob"))
+                .isInstanceOf(Caller.CallerMismatchException.class)
+                .hasMessageContaining("bob");
+    }
+
+    @Test
+    void groupBookingMustIncludeTheCaller() {
+        assertThatCode(() -> Caller.requireMember(ALICE, List.of("bob", "alice"))).doesNotThrowAnyException();
+        assertThatThrownBy(() -> Caller.requireMember(ALICE, List.of("bob", "carol")))
+                .isInstanceOf(Caller.CallerMismatchException.class);
+    }
+
+    @Test
+    void adminActsForAnyone() {
+        assertThatCode(() -> Caller.requireSelf(DESK, "bob")).doesNotThrowAnyException();
+        assertThatCode(() -> Caller.requireMember(DESK, List.of("bob", "carol"))).doesNotThrowAnyException();
+    }
+
+    private static JwtPrincipal principal(String username, String role) {
+        return new JwtPrincipal(username, List.of(role), Instant.now().plusSeconds(900));
+    }
+}
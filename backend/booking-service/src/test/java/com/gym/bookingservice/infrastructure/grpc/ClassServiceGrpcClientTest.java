@@ -0,0 +1,318 @@
+package com.gym.bookingservice.infrastructure.grpc;
+
+import com.gym.shared.grpc.ClassServiceGrpc;
+import com.gym.shared.grpc.GetClassRequest;
+import com.gym.shared.grpc.GetClassResponse;
+import com.gym.shared.grpc.ReleaseSpotRequest;
+import com.gym.shared.grpc.ReleaseSpotResponse;
+import com.gym.shared.grpc.ReserveSpotRequest;
+import com.gym.shared.grpc.ReserveSpotResponse;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Latency and fault behaviour of the Class Service client against an in-process gRPC server:
+ * deadlines, hedging, circuit breaker, bulkhead and seat-release compensation.
+ */
+class ClassServiceGrpcClientTest {
+
+    private static final long DEADLINE_MS = 200;
+    private static final long HEDGE_DELAY_MS = 50;
+
+    private FakeClassService classService;
+    private Server server;
+    private ManagedChannel channel;
+    private CircuitBreakerRegistry circuitBreakers;
+    private SimpleMeterRegistry meterRegistry;
+    private ClassServiceGrpcClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        classService = new FakeClassService();
+        server = InProcessServerBuilder.forName(name).addService(classService).build().start();
+        channel = InProcessChannelBuilder.forName(name).build();
+
+        circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(10)
+                .minimumNumberOfCalls(5)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .recordExceptions(StatusRuntimeException.class)
+                .build());
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(2)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        meterRegistry = new SimpleMeterRegistry();
+
+        ClassServiceResilience resilience =
+                new ClassServiceResilience(circuitBreakers, bulkheads, meterRegistry, HEDGE_DELAY_MS);
+        client = new ClassServiceGrpcClient(new ClassAvailabilityCache(1000, 2000, 30000),
+                resilience, meterRegistry, DEADLINE_MS, 3, 20);
+        ReflectionTestUtils.setField(client, "classServiceStub", ClassServiceGrpc.newBlockingStub(channel));
+        ReflectionTestUtils.setField(client, "classServiceFutureStub", ClassServiceGrpc.newFutureStub(channel));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        client.stopReleaseRetries();
+        channel.shutdownNow().awaitTermination(1, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void slowGetClassIsHedgedAndAnsweredByTheSecondAttempt() {
+        classService.getClassDelaysMs.add(1_000L);
+
+        long started = System.nanoTime();
+        client.validateClassAvailability(1L);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertThat(elapsedMs).isLessThan(DEADLINE_MS);
+        assertThat(classService.getClassCalls.get()).isEqualTo(2);
+        assertThat(meterRegistry.counter("class_service.client.hedged").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void reserveSpotPastItsDeadlineFailsFastAndReleasesTheClaim() {
+        classService.reserveDelayMs = 500;
+
+        long started = System.nanoTime();
+        assertThatThrownBy(() -> client.reserveSpots(1L, 2))
+                .isInstanceOf(ClassServiceGrpcClient.GrpcCommunicationException.class)
+                .hasMessageContaining("DEADLINE_EXCEEDED");
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        // Bounded by the claim's deadline plus the (fast) release, not by the slow server
+        assertThat(elapsedMs).isLessThan(classService.reserveDelayMs);
+        assertThat(classService.releases).hasSize(1);
+        assertThat(classService.releases.get(0).getRequestId()).isEqualTo(classService.reserves.get(0).getRequestId());
+        assertThat(classService.releases.get(0).getCount()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectedReserveSpotIsNotReleased() {
+        classService.reserveAnswer = ReserveSpotResponse.newBuilder().setExists(true).setReserved(false).build();
+
+        assertThatThrownBy(() -> client.reserveSpots(1L, 1))
+                .isInstanceOf(ClassServiceGrpcClient.ClassFullException.class);
+        assertThat(classService.releases).isEmpty();
+    }
+
+    @Test
+    void eachClaimCarriesItsOwnRequestId() {
+        String first = client.reserveSpots(1L, 1);
+        String second = client.reserveSpots(1L, 1);
+
+        assertThat(first).isNotBlank().isNotEqualTo(second);
+        assertThat(classService.reserves).extracting(ReserveSpotRequest::getRequestId).containsExactly(first, second);
+    }
+
+    @Test
+    void circuitOpensAfterRepeatedFailuresAndThenFailsWithoutACall() {
+        classService.getClassFailure = Status.UNAVAILABLE;
+
+        for (long classId = 1; classId <= 5; classId++) {
+            long id = classId;
+            assertThatThrownBy(() -> client.validateClassAvailability(id))
+                    .isInstanceOf(ClassServiceGrpcClient.GrpcCommunicationException.class)
+                    .hasMessageContaining("UNAVAILABLE");
+        }
+        int callsBeforeOpen = classService.getClassCalls.get();
+
+        assertThatThrownBy(() -> client.validateClassAvailability(6L))
+                .isInstanceOf(ClassServiceGrpcClient.GrpcCommunicationException.class)
+                .hasMessageContaining("circuit breaker is open");
+        assertThat(classService.getClassCalls.get()).isEqualTo(callsBeforeOpen);
+    }
+
+    @Test
+    void releaseGoesOutWhileTheCircuitIsOpen() {
+        circuitBreakers.circuitBreaker(ClassServiceResilience.INSTANCE).transitionToOpenState();
+
+        client.releaseSpots(1L, 1, "claim-1");
+
+        assertThat(classService.releases).extracting(ReleaseSpotRequest::getRequestId).containsExactly("claim-1");
+    }
+
+    @Test
+    void failedReleaseIsRetriedWithTheSameRequestId() {
+        classService.releaseFailures.add(Status.UNAVAILABLE);
+        classService.releaseFailures.add(Status.UNAVAILABLE);
+
+        client.releaseSpots(1L, 1, "claim-1");
+
+        awaitTrue(() -> classService.releases.size() == 3);
+        assertThat(classService.releases).extracting(ReleaseSpotRequest::getRequestId).containsOnly("claim-1");
+        assertThat(meterRegistry.counter("class_service.client.abandoned_releases").count()).isZero();
+    }
+
+    @Test
+    void releaseIsAbandonedAfterTheLastAttempt() {
+        for (int i = 0; i < 3; i++) {
+            classService.releaseFailures.add(Status.UNAVAILABLE);
+        }
+
+        client.releaseSpots(1L, 1, "claim-1");
+
+        awaitTrue(() -> meterRegistry.counter("class_service.client.abandoned_releases").count() == 1.0);
+        assertThat(classService.releases).hasSize(3);
+    }
+
+    @Test
+    void oneShotReleaseIsRetriedOnlyWhileClassServiceIsUnreachable() {
+        classService.releaseFailures.add(Status.UNAVAILABLE);
+        classService.releaseFailures.add(Status.INTERNAL);
+
+        client.releaseSpots(1L, 2);
+
+        awaitTrue(() -> meterRegistry.counter("class_service.client.abandoned_releases").count() == 1.0);
+        assertThat(classService.releases).hasSize(2);
+        assertThat(classService.releases).extracting(ReleaseSpotRequest::getRequestId).containsOnly("");
+        assertThat(classService.releases).extracting(ReleaseSpotRequest::getCount).containsOnly(2);
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondItsLimitWithoutWaiting() throws Exception {
+        classService.reserveGate = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<String>> inFlight = List.of(
+                    callers.submit(() -> client.reserveSpots(1L, 1)),
+                    callers.submit(() -> client.reserveSpots(2L, 1)));
+            awaitTrue(() -> classService.reserves.size() == 2);
+
+            long started = System.nanoTime();
+            assertThatThrownBy(() -> client.reserveSpots(3L, 1))
+                    .isInstanceOf(ClassServiceGrpcClient.GrpcCommunicationException.class)
+                    .hasMessageContaining("Too many concurrent calls");
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(DEADLINE_MS / 2);
+
+            classService.reserveGate.countDown();
+            for (Future<String> call : inFlight) {
+                assertThat(call.get(1, TimeUnit.SECONDS)).isNotBlank();
+            }
+            assertThat(classService.reserves).hasSize(2);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    /**
+     * Class Service stand-in with scripted delays and failures
+     */
+    private static class FakeClassService extends ClassServiceGrpc.ClassServiceImplBase {
+
+        final Queue<Long> getClassDelaysMs = new ConcurrentLinkedQueue<>();
+        final AtomicInteger getClassCalls = new AtomicInteger();
+        volatile Status getClassFailure;
+
+        final List<ReserveSpotRequest> reserves = new CopyOnWriteArrayList<>();
+        volatile long reserveDelayMs;
+        volatile CountDownLatch reserveGate;
+        volatile ReserveSpotResponse reserveAnswer =
+                ReserveSpotResponse.newBuilder().setExists(true).setReserved(true).build();
+
+        final List<ReleaseSpotRequest> releases = new CopyOnWriteArrayList<>();
+        final Queue<Status> releaseFailures = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public void getClass(GetClassRequest request, StreamObserver<GetClassResponse> responseObserver) {
+            getClassCalls.incrementAndGet();
+            if (getClassFailure != null) {
+                responseObserver.onError(getClassFailure.asRuntimeException());
+                return;
+            }
+            Long delayMs = getClassDelaysMs.poll();
+            sleep(delayMs == null ? 0 : delayMs);
+            responseObserver.onNext(GetClassResponse.newBuilder()
+                    .setId(request.getId())
+                    .setName("Class " + request.getId())
+                    .setTotalCapacity(10)
+                    .setAvailableSpots(5)
+                    .setExists(true)
+                    .build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void reserveSpot(ReserveSpotRequest request, StreamObserver<ReserveSpotResponse> responseObserver) {
+            reserves.add(request);
+            CountDownLatch gate = reserveGate;
+            if (gate != null) {
+                try {
+                    gate.await(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sleep(reserveDelayMs);
+            responseObserver.onNext(reserveAnswer);
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void releaseSpot(ReleaseSpotRequest request, StreamObserver<ReleaseSpotResponse> responseObserver) {
+            releases.add(request);
+            Status failure = releaseFailures.poll();
+            if (failure != null) {
+                responseObserver.onError(failure.asRuntimeException());
+                return;
+            }
+            responseObserver.onNext(ReleaseSpotResponse.newBuilder().setExists(true).setReleased(true).build());
+            responseObserver.onCompleted();
+        }
+
+        private static void sleep(long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.gym.bookingservice.infrastructure.persistence;
+
+import com.gym.bookingservice.domain.model.Booking;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query-plan regression test: EXPLAIN ANALYZE the booking listings and duplicate checks,
+ * exactly as Hibernate generates them, against the Flyway schema on embedded Postgres.
+ *
+ * Every listing must be read from its keyset index in order (no Seq Scan, no Sort), and a
+ * deep page must start at the cursor (the keyset bound is an index condition) instead of
+ * reading and dropping every newer row.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.gym.bookingservice.infrastructure.persistence.BookingQueryPlanTest$CapturingInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookingQueryPlanTest {
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    private static final int CLASSES = 200;
+    private static final int BOOKINGS = 100_000;
+    private static final int PAGE_SIZE = 21;
+    private static final Pattern ROWS_REMOVED = Pattern.compile("Rows Removed by Filter: (\\d+)");
+
+    @Autowired
+    private BookingJpaRepository bookingRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        POSTGRES.close();
+    }
+
+    /**
+     * 100k bookings, one a minute: class = id % 200 + 1, 500 per class and per user.
+     * Seeded once, then analyzed so the planner sees production-like statistics.
+     */
+    @BeforeEach
+    void seed() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            try (ResultSet count = statement.executeQuery("SELECT count(*) FROM booking_service.bookings")) {
+                count.next();
+                if (count.getLong(1) > 0) {
+                    return;
+                }
+            }
+            statement.execute("INSERT INTO booking_service.bookings (id, class_id, user_name, created_at) " +
+                    "SELECT g, g % " + CLASSES + " + 1, 'user-' || (g / " + CLASSES + "), " +
+                    "timestamp '2026-01-01' + g * interval '1 minute' FROM generate_series(1, " + BOOKINGS + ") g");
+            statement.execute("ANALYZE booking_service.bookings");
+        }
+    }
+
+    @Test
+    void classListingReadsItsKeysetIndex() throws SQLException {
+        String plan = explain(() -> bookingRepository.findPage(
+                BookingSpecifications.hasClassId(42L), ScrollPosition.keyset(), PAGE_SIZE), 42L, PAGE_SIZE);
+
+        assertKeysetScan(plan, "idx_bookings_class_created");
+    }
+
+    @Test
+    void deepClassPageStartsAtTheCursor() throws SQLException {
+        Booking cursor = bookingRepository.findById(50_041L).orElseThrow();
+
+        String plan = explain(() -> bookingRepository.findPage(
+                        BookingSpecifications.hasClassId(42L), positionOf(cursor), PAGE_SIZE),
+                42L, cursor.getCreatedAt(), cursor.getCreatedAt(), cursor.getCreatedAt(), cursor.getId(), PAGE_SIZE);
+
+        assertKeysetScan(plan, "idx_bookings_class_created");
+        assertThat(plan).contains("created_at <=");
+    }
+
+    @Test
+    void userListingReadsItsKeysetIndex() throws SQLException {
+        Booking cursor = bookingRepository.findById(50_100L).orElseThrow();
+
+        String plan = explain(() -> bookingRepository.findPage(
+                        BookingSpecifications.hasUserName("user-250"), positionOf(cursor), PAGE_SIZE),
+                "user-250", cursor.getCreatedAt(), cursor.getCreatedAt(), cursor.getCreatedAt(), cursor.getId(), PAGE_SIZE);
+
+        assertKeysetScan(plan, "idx_bookings_user_created");
+    }
+
+    @Test
+    void deepUnfilteredPageStartsAtTheCursor() throws SQLException {
+        Booking cursor = bookingRepository.findById(50_000L).orElseThrow();
+
+        String plan = explain(() -> bookingRepository.findPage(
+                        Specification.where(null), positionOf(cursor), PAGE_SIZE),
+                cursor.getCreatedAt(), cursor.getCreatedAt(), cursor.getCreatedAt(), cursor.getId(), PAGE_SIZE);
+
+        assertKeysetScan(plan, "idx_bookings_created");
+        assertThat(plan).contains("created_at <=");
+    }
+
+    @Test
+    void classListingInADateRangeReadsTheClassIndex() throws SQLException {
+        LocalDateTime from = LocalDateTime.parse("2026-02-01T00:00");
+        LocalDateTime to = LocalDateTime.parse("2026-03-01T00:00");
+
+        String plan = explain(() -> bookingRepository.findPage(
+                        Specification.where(BookingSpecifications.hasClassId(42L))
+                                .and(BookingSpecifications.createdFrom(from))
+                                .and(BookingSpecifications.createdBefore(to)),
+                        ScrollPosition.keyset(), PAGE_SIZE),
+                42L, from, to, PAGE_SIZE);
+
+        assertKeysetScan(plan, "idx_bookings_class_created");
+    }
+
+    @Test
+    void duplicateChecksUseTheUniqueIndex() throws SQLException {
+        String single = explain(() -> bookingRepository.existsByClassIdAndUserName(42L, "user-250"),
+                42L, "user-250", 1);
+        String group = explain(() -> bookingRepository.findBookedUserNames(42L, List.of("user-1", "user-2")),
+                42L, "user-1", "user-2");
+
+        assertThat(single).contains("uk_bookings_class_user").doesNotContain("Seq Scan");
+        assertThat(group).contains("uk_bookings_class_user").doesNotContain("Seq Scan");
+    }
+
+    private static void assertKeysetScan(String plan, String index) {
+        assertThat(plan)
+                .contains("Index Scan using " + index)
+                .doesNotContain("Seq Scan")
+                .doesNotContain("Sort");
+        // At most the rows sharing the cursor's created_at are read and dropped
+        Matcher removed = ROWS_REMOVED.matcher(plan);
+        while (removed.find()) {
+            assertThat(Integer.parseInt(removed.group(1))).as(plan).isLessThanOrEqualTo(PAGE_SIZE);
+        }
+    }
+
+    private static ScrollPosition positionOf(Booking booking) {
+        return ScrollPosition.forward(Map.of("createdAt", booking.getCreatedAt(), "id", booking.getId()));
+    }
+
+    /**
+     * Run the repository call, then EXPLAIN ANALYZE the statement it issued with the given
+     * parameters (in bind order), so the plan is the one Postgres picks for those values
+     */
+    private String explain(Runnable repositoryCall, Object... parameters) throws SQLException {
+        CapturingInspector.STATEMENTS.clear();
+        repositoryCall.run();
+        List<String> statements = new ArrayList<>(CapturingInspector.STATEMENTS);
+        assertThat(statements).hasSize(1);
+
+        String sql = statements.get(0);
+        for (int i = 1; sql.contains("?"); i++) {
+            sql = sql.replaceFirst("\\?", "\\$" + i);
+        }
+        String arguments = Arrays.stream(parameters)
+                .map(parameter -> parameter instanceof Number ? parameter.toString() : "'" + parameter + "'")
+                .collect(Collectors.joining(", "));
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("PREPARE plan_check AS " + sql);
+            try (ResultSet rows = statement.executeQuery(
+                    "EXPLAIN (ANALYZE, COSTS OFF, TIMING OFF) EXECUTE plan_check(" + arguments + ")")) {
+                StringBuilder plan = new StringBuilder();
+                while (rows.next()) {
+                    plan.append(rows.getString(1)).append('\n');
+                }
+                return plan.toString();
+            } finally {
+                statement.execute("DEALLOCATE plan_check");
+            }
+        }
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Embedded Postgres did not start", e);
+        }
+    }
+
+    /**
+     * Records the SQL of every statement Hibernate prepares
+     */
+    public static class CapturingInspector implements StatementInspector {
+
+        static final Queue<String> STATEMENTS = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.gym.bookingservice.infrastructure.redis;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Waiting room tickets against a real Redis: one waiting ticket per holder, so retries
+ * and extra tabs do not push everyone behind them further back.
+ */
+class WaitingRoomStoreTest {
+
+    private static final long CLASS_ID = 7L;
+
+    private static RedisServer redis;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    // One admission up front, then practically none: everyone after the first waits
+    private final WaitingRoomStore store =
+            new WaitingRoomStore(redisTemplate, ObservationRegistry.NOOP, 0.001, 1, 600_000);
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redis = new RedisServer(port);
+        redis.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    @BeforeEach
+    void emptyWaitingRoom() {
+        redisTemplate.getRequiredConnectionFactory().getConnection().serverCommands().flushAll();
+        assertThat(store.admit(CLASS_ID, "first", 0).isAdmitted()).isTrue();
+    }
+
+    @Test
+    void retryWithoutTicketKeepsThePlace() {
+        WaitingRoomStore.Admission waiting = store.admit(CLASS_ID, "second", 0);
+        WaitingRoomStore.Admission retry = store.admit(CLASS_ID, "second", 0);
+
+        assertThat(waiting.isAdmitted()).isFalse();
+        assertThat(retry.ticket()).isEqualTo(waiting.ticket());
+        assertThat(store.admit(CLASS_ID, "third", 0).position()).isEqualTo(2);
+    }
+
+    @Test
+    void retryWithTicketKeepsThePlace() {
+        WaitingRoomStore.Admission waiting = store.admit(CLASS_ID, "second", 0);
+
+        assertThat(store.admit(CLASS_ID, "second", waiting.ticket()).ticket()).isEqualTo(waiting.ticket());
+        assertThat(store.admit(CLASS_ID, "second", 0).ticket()).isEqualTo(waiting.ticket());
+    }
+
+    @Test
+    void admittedHolderQueuesAgainForTheNextRequest() {
+        WaitingRoomStore.Admission next = store.admit(CLASS_ID, "first", 0);
+
+        assertThat(next.isAdmitted()).isFalse();
+        assertThat(next.position()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,133 @@
+package com.gym.bookingservice.infrastructure.redis;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Waitlist claims against a real Redis: a user handed to a promoter is booked,
+ * put back at their original place, or recovered once the claim's lease runs out.
+ */
+class WaitlistStoreTest {
+
+    private static final long CLASS_ID = 7L;
+    private static final long DAY_MS = 86_400_000L;
+
+    private static RedisServer redis;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private final WaitlistStore store = new WaitlistStore(redisTemplate, DAY_MS, DAY_MS);
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redis = new RedisServer(port);
+        redis.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    @BeforeEach
+    void emptyWaitlist() {
+        redisTemplate.getRequiredConnectionFactory().getConnection().serverCommands().flushAll();
+        store.join(CLASS_ID, "first");
+        store.join(CLASS_ID, "second");
+    }
+
+    @Test
+    void claimTakesTheHeadOffTheQueue() {
+        Optional<WaitlistStore.Claim> claim = store.claimHead(CLASS_ID);
+
+        assertThat(claim).map(WaitlistStore.Claim::userName).contains("first");
+        assertThat(store.rank(CLASS_ID, "first")).isEmpty();
+        assertThat(store.rank(CLASS_ID, "second")).contains(0L);
+    }
+
+    @Test
+    void releasedClaimGoesBackToItsOriginalPlace() {
+        WaitlistStore.Claim claim = store.claimHead(CLASS_ID).orElseThrow();
+
+        store.release(CLASS_ID, claim);
+
+        assertThat(store.rank(CLASS_ID, "first")).contains(0L);
+        assertThat(store.recoverExpiredClaims(CLASS_ID)).isZero();
+    }
+
+    @Test
+    void completedClaimIsNeverRecovered() {
+        WaitlistStore shortLease = new WaitlistStore(redisTemplate, DAY_MS, 0);
+        WaitlistStore.Claim claim = shortLease.claimHead(CLASS_ID).orElseThrow();
+
+        shortLease.complete(CLASS_ID, claim);
+
+        assertThat(shortLease.recoverExpiredClaims(CLASS_ID)).isZero();
+        assertThat(store.rank(CLASS_ID, "first")).isEmpty();
+    }
+
+    @Test
+    void abandonedClaimReturnsToTheQueueAfterItsLease() {
+        WaitlistStore shortLease = new WaitlistStore(redisTemplate, DAY_MS, 0);
+        shortLease.claimHead(CLASS_ID).orElseThrow();
+        // The promoter dies here: neither complete() nor release()
+
+        assertThat(store.recoverExpiredClaims(CLASS_ID)).isEqualTo(1);
+        assertThat(store.rank(CLASS_ID, "first")).contains(0L);
+    }
+
+    @Test
+    void liveClaimIsNotRecovered() {
+        store.claimHead(CLASS_ID).orElseThrow();
+
+        assertThat(store.recoverExpiredClaims(CLASS_ID)).isZero();
+        assertThat(store.rank(CLASS_ID, "first")).isEmpty();
+    }
+
+    @Test
+    void liveClaimCanBeRenewedButNotOnceItsLeaseRanOut() {
+        WaitlistStore shortLease = new WaitlistStore(redisTemplate, DAY_MS, 0);
+
+        assertThat(store.renew(CLASS_ID, store.claimHead(CLASS_ID).orElseThrow())).isTrue();
+        assertThat(shortLease.renew(CLASS_ID, shortLease.claimHead(CLASS_ID).orElseThrow())).isFalse();
+    }
+
+    @Test
+    void staleClaimCannotSettleTheUsersNextClaim() {
+        WaitlistStore shortLease = new WaitlistStore(redisTemplate, DAY_MS, 0);
+        WaitlistStore.Claim stale = shortLease.claimHead(CLASS_ID).orElseThrow();
+        store.recoverExpiredClaims(CLASS_ID);
+        WaitlistStore.Claim current = store.claimHead(CLASS_ID).orElseThrow();
+        assertThat(current.userName()).isEqualTo(stale.userName());
+
+        // The first promoter wakes up after its lease ran out
+        shortLease.complete(CLASS_ID, stale);
+        shortLease.release(CLASS_ID, stale);
+
+        assertThat(shortLease.renew(CLASS_ID, stale)).isFalse();
+        assertThat(store.renew(CLASS_ID, current)).isTrue();
+        assertThat(store.rank(CLASS_ID, "first")).isEmpty();
+        assertThat(store.recoverExpiredClaims(CLASS_ID)).isZero();
+    }
+}
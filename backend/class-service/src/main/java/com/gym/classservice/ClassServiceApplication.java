@@ -1,9 +1,14 @@
 package com.gym.classservice;
 
+import com.gym.shared.security.JwtAuthenticationConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@Import(JwtAuthenticationConfig.class)
 public class ClassServiceApplication {
 
     public static void main(String[] args) {
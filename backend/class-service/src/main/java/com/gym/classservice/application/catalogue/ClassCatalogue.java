@@ -0,0 +1,120 @@
+package com.gym.classservice.application.catalogue;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gym.classservice.application.dto.ClassPageResponse;
+import com.gym.classservice.application.dto.ClassResponse;
+import com.gym.classservice.domain.model.GymClass;
+import com.gym.classservice.infrastructure.persistence.ClassJpaRepository;
+import com.gym.classservice.infrastructure.redis.ClassCatalogueVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Application Service: Paginated class catalogue with strong ETags
+ *
+ * A page's ETag is a digest of its (id, version) pairs plus whether more pages follow,
+ * so it changes exactly when the page content does.
+ * The last ETag of each page is remembered together with a snapshot of the catalogue
+ * generation and of the versions of the classes on it (see ClassCatalogueVersion):
+ * while none of them changed, a matching If-None-Match is answered from memory.
+ * Seat changes elsewhere in the catalogue leave the page's ETag valid.
+ *
+ * The snapshot must be taken before the query, so it covers the classes the page held
+ * the last time it was loaded: if the page now holds other classes, it is remembered
+ * without a snapshot and the next load takes one. Remembered ETags also expire after
+ * etag-ttl-ms, which bounds how long a bump lost on another instance can go unnoticed.
+ */
+@Service
+public class ClassCatalogue {
+
+    private final ClassJpaRepository classRepository;
+    private final ClassCatalogueVersion catalogueVersion;
+    private final Cache<PageKey, PageValidator> validators;
+
+    public ClassCatalogue(ClassJpaRepository classRepository,
+                          ClassCatalogueVersion catalogueVersion,
+                          @Value("${app.class-catalogue.etag-cache-size:10000}") long etagCacheSize,
+                          @Value("${app.class-catalogue.etag-ttl-ms:60000}") long etagTtlMs) {
+        this.classRepository = classRepository;
+        this.catalogueVersion = catalogueVersion;
+        this.validators = Caffeine.newBuilder()
+                .maximumSize(etagCacheSize)
+                .expireAfterWrite(Duration.ofMillis(etagTtlMs))
+                .build();
+    }
+
+    /**
+     * ETag of the page as of the current versions, if known without a database read
+     */
+    public String knownETag(long afterId, int size) {
+        PageValidator validator = validators.getIfPresent(new PageKey(afterId, size));
+        if (validator == null || validator.snapshot() == null) {
+            return null;
+        }
+
+        return validator.snapshot().equals(catalogueVersion.current(validator.classIds()))
+                ? validator.eTag()
+                : null;
+    }
+
+    /**
+     * Load one page from Postgres and remember its ETag
+     */
+    public Page loadPage(long afterId, int size) {
+        // Sampled before the query (see ClassCatalogueVersion), for the classes the page held last time
+        PageKey key = new PageKey(afterId, size);
+        PageValidator previous = validators.getIfPresent(key);
+        List<Long> expectedIds = previous != null ? previous.classIds() : List.of();
+        String snapshot = catalogueVersion.current(expectedIds);
+
+        List<GymClass> classes = classRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(size + 1));
+        boolean hasNext = classes.size() > size;
+        List<GymClass> pageClasses = hasNext ? classes.subList(0, size) : classes;
+
+        String nextCursor = hasNext ? String.valueOf(pageClasses.get(size - 1).getId()) : null;
+        String eTag = eTag(pageClasses, hasNext);
+
+        List<Long> classIds = pageClasses.stream().map(GymClass::getId).toList();
+        validators.put(key, new PageValidator(classIds, classIds.equals(expectedIds) ? snapshot : null, eTag));
+
+        List<ClassResponse> items = pageClasses.stream()
+                .map(ClassResponse::fromDomain)
+                .collect(Collectors.toList());
+        return new Page(new ClassPageResponse(items, nextCursor), eTag);
+    }
+
+    /**
+     * Strong ETag of a single class
+     */
+    public static String eTag(GymClass gymClass) {
+        return "\"" + gymClass.getId() + "-" + gymClass.getVersion() + "\"";
+    }
+
+    private static String eTag(List<GymClass> classes, boolean hasNext) {
+        StringBuilder versions = new StringBuilder();
+        classes.forEach(c -> versions.append(c.getId()).append(':').append(c.getVersion()).append(','));
+        versions.append(hasNext);
+
+        return "\"" + DigestUtils.md5DigestAsHex(versions.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    public record Page(ClassPageResponse body, String eTag) {
+    }
+
+    private record PageKey(long afterId, int size) {
+    }
+
+    /**
+     * @param snapshot versions the ETag is valid for, or null if none was taken before the query
+     */
+    private record PageValidator(List<Long> classIds, String snapshot, String eTag) {
+    }
+}
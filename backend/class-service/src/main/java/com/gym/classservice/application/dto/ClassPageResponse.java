@@ -0,0 +1,26 @@
+package com.gym.classservice.application.dto;
+
+import java.util.List;
+
+/**
+ * Response DTO for one catalogue page
+ * nextCursor is null on the last page
+ */
+public class ClassPageResponse {
+
+    private final List<ClassResponse> items;
+    private final String nextCursor;
+
+    public ClassPageResponse(List<ClassResponse> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<ClassResponse> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
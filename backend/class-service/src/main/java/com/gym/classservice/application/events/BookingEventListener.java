@@ -1,56 +1,115 @@
 package com.gym.classservice.application.events;
 
-import com.gym.classservice.domain.model.GymClass;
-import com.gym.classservice.infrastructure.persistence.ClassJpaRepository;
+import com.gym.classservice.infrastructure.persistence.ProcessedBookingEvent;
+import com.gym.classservice.infrastructure.persistence.ProcessedBookingEventRepository;
 import com.gym.shared.events.BookingCreatedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 /**
- * Event Listener: Handles BookingCreatedEvent from Redis Pub/Sub
+ * Event Listener: Handles BookingCreatedEvents from the Redis Stream
+ *
+ * BookingEventStreamConsumer coalesces the events of a short window, groups them
+ * by classId and hands each group to this listener: one transaction per class
+ * per window instead of one per event.
+ *
+ * The spot itself is already claimed synchronously through the ReserveSpot
+ * gRPC call before the booking is persisted, so the event is a confirmation
+ * and must NOT decrement available spots a second time.
  *
- * This listener is invoked by Redis MessageListenerAdapter when a message
- * is published to the "booking-created" channel.
+ * Delivery is at-least-once, so handling is idempotent: events are recorded in
+ * the processed-event index (keyed on bookingId) in the same transaction as their effects.
+ *
+ * "booking_events.lag" measures each applied event from its creation in Booking Service
+ * (the timestamp it carries) to here: outbox relay, stream and coalescing window included.
  */
 @Component
 public class BookingEventListener {
 
     private static final Logger log = LoggerFactory.getLogger(BookingEventListener.class);
 
-    private final ClassJpaRepository classRepository;
+    private final ProcessedBookingEventRepository processedEventRepository;
+    private final ProcessedEventFilter processedEventFilter;
+    private final Timer eventLag;
 
-    public BookingEventListener(ClassJpaRepository classRepository) {
-        this.classRepository = classRepository;
+    public BookingEventListener(ProcessedBookingEventRepository processedEventRepository,
+                                ProcessedEventFilter processedEventFilter,
+                                MeterRegistry meterRegistry) {
+        this.processedEventRepository = processedEventRepository;
+        this.processedEventFilter = processedEventFilter;
+        this.eventLag = Timer.builder("booking_events.lag")
+                .description("Booking creation to event applied in Class Service")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     /**
-     * Handle BookingCreatedEvent from Redis: Decrement available spots
+     * Apply all events of one class from one coalescing window
+     *
+     * Nothing is rejected here: capacity is enforced once, when ReserveSpot (or the hot
+     * inventory counter) claims the seat, and a booking whose claim failed never reaches
+     * the outbox. A second check against the confirmed count could only disagree with
+     * that decision after Booking Service has already confirmed the booking.
      *
-     * This method is called by Redis MessageListenerAdapter.
-     * Method name must match the one configured in RedisConfig.
+     * Throwing leaves the stream entries unacknowledged, so they are redelivered.
      */
     @Transactional
-    public void handleBookingCreated(BookingCreatedEvent event) {
-        log.info("Received BookingCreatedEvent from Redis: classId={}, bookingId={}",
-            event.getClassId(), event.getBookingId());
+    public void handleBookingsCreated(Long classId, List<BookingCreatedEvent> events) {
+        log.info("Received {} BookingCreatedEvents from Redis for class {} (spots already reserved)", events.size(), classId);
 
-        Long classId = event.getClassId();
+        List<Long> bookingIds = events.stream().map(BookingCreatedEvent::getBookingId).distinct().toList();
+        List<Long> fresh = withoutDuplicates(bookingIds.stream().filter(processedEventFilter::mightContain).toList(), bookingIds);
+        if (fresh.isEmpty()) {
+            return;
+        }
 
-        // Find the class
-        GymClass gymClass = classRepository.findById(classId)
-            .orElseThrow(() -> new IllegalStateException(
-                "Class not found with id: " + classId
-            ));
+        int recorded = processedEventRepository.insertAllIfAbsent(classId, fresh.toArray(Long[]::new));
+        if (recorded < fresh.size()) {
+            log.info("{} BookingCreatedEvents for class {} were already processed", fresh.size() - recorded, classId);
+        }
+        fresh.forEach(processedEventFilter::put);
+        recordLag(events, fresh);
+    }
 
-        // Reserve a spot (domain method)
-        gymClass.reserveSpot();
+    private void recordLag(List<BookingCreatedEvent> events, List<Long> applied) {
+        Instant now = Instant.now();
+        Set<Long> appliedIds = new HashSet<>(applied);
+        for (BookingCreatedEvent event : events) {
+            // Redeliveries of one booking are counted once; events without a timestamp cannot be measured
+            if (event.getTimestamp() != null && appliedIds.remove(event.getBookingId())) {
+                eventLag.record(Duration.between(event.getTimestamp(), now));
+            }
+        }
+    }
 
-        // Save (spot is decremented)
-        classRepository.save(gymClass);
+    /**
+     * Drop events already in the processed-event index, looking up only {@code candidates}
+     * in one query for the whole group. Normally the candidates are the ids the Bloom
+     * filter reports as "maybe seen"; the insert's ON CONFLICT guard covers what the
+     * filter cannot know (restarts).
+     */
+    private List<Long> withoutDuplicates(List<Long> candidates, List<Long> bookingIds) {
+        if (candidates.isEmpty()) {
+            return bookingIds;
+        }
 
-        log.info("Successfully decremented available spots for class {} (booking {})",
-            classId, event.getBookingId());
+        Set<Long> processed = processedEventRepository.findAllById(candidates).stream()
+                .map(ProcessedBookingEvent::getBookingId)
+                .collect(Collectors.toSet());
+        if (!processed.isEmpty()) {
+            log.info("Skipping {} duplicate BookingCreatedEvents", processed.size());
+        }
+        return bookingIds.stream().filter(id -> !processed.contains(id)).toList();
     }
 }
@@ -0,0 +1,55 @@
+package com.gym.classservice.application.events;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process, memory-bounded filter of recently processed booking ids
+ *
+ * A pair of Bloom filters (current + previous window). When the current one has
+ * seen its expected number of ids it becomes the previous one and a fresh filter
+ * takes over, so memory stays constant and the false-positive rate never degrades.
+ *
+ * "Definitely not seen" lets a first-time event skip the dedup lookup entirely.
+ * "Maybe seen" (a real duplicate, or a false positive) falls back to the database.
+ * The filter is a shortcut only: after a restart it is empty, and correctness
+ * still comes from the processed-event index.
+ */
+@Component
+public class ProcessedEventFilter {
+
+    private final long windowSize;
+    private final double falsePositiveRate;
+
+    private BloomFilter<Long> current;
+    private BloomFilter<Long> previous;
+    private long insertedInWindow;
+
+    public ProcessedEventFilter(@Value("${app.booking-events.dedup-window-size:1000000}") long windowSize,
+                                @Value("${app.booking-events.dedup-false-positive-rate:0.01}") double falsePositiveRate) {
+        this.windowSize = windowSize;
+        this.falsePositiveRate = falsePositiveRate;
+        this.current = newFilter();
+        this.previous = newFilter();
+    }
+
+    public synchronized boolean mightContain(Long bookingId) {
+        return current.mightContain(bookingId) || previous.mightContain(bookingId);
+    }
+
+    public synchronized void put(Long bookingId) {
+        if (insertedInWindow >= windowSize) {
+            previous = current;
+            current = newFilter();
+            insertedInWindow = 0;
+        }
+        current.put(bookingId);
+        insertedInWindow++;
+    }
+
+    private BloomFilter<Long> newFilter() {
+        return BloomFilter.create(Funnels.longFunnel(), windowSize, falsePositiveRate);
+    }
+}
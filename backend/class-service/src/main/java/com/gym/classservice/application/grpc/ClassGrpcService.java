@@ -1,15 +1,24 @@
 package com.gym.classservice.application.grpc;
 
+import com.gym.classservice.application.inventory.SeatReservationService;
 import com.gym.classservice.domain.model.GymClass;
 import com.gym.classservice.infrastructure.persistence.ClassJpaRepository;
+import com.gym.classservice.infrastructure.redis.ClassCapacityPublisher;
 import com.gym.shared.grpc.ClassServiceGrpc;
 import com.gym.shared.grpc.GetClassRequest;
 import com.gym.shared.grpc.GetClassResponse;
+import com.gym.shared.grpc.GetClassesRequest;
+import com.gym.shared.grpc.GetClassesResponse;
+import com.gym.shared.grpc.ReleaseSpotRequest;
+import com.gym.shared.grpc.ReleaseSpotResponse;
+import com.gym.shared.grpc.ReserveSpotRequest;
+import com.gym.shared.grpc.ReserveSpotResponse;
 import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.server.service.GrpcService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -24,9 +33,15 @@ public class ClassGrpcService extends ClassServiceGrpc.ClassServiceImplBase {
     private static final Logger logger = LoggerFactory.getLogger(ClassGrpcService.class);
 
     private final ClassJpaRepository classRepository;
+    private final SeatReservationService seatReservations;
+    private final ClassCapacityPublisher capacityPublisher;
 
-    public ClassGrpcService(ClassJpaRepository classRepository) {
+    public ClassGrpcService(ClassJpaRepository classRepository,
+                            SeatReservationService seatReservations,
+                            ClassCapacityPublisher capacityPublisher) {
         this.classRepository = classRepository;
+        this.seatReservations = seatReservations;
+        this.capacityPublisher = capacityPublisher;
     }
 
     @Override
@@ -38,13 +53,7 @@ public class ClassGrpcService extends ClassServiceGrpc.ClassServiceImplBase {
         GetClassResponse response;
         if (gymClassOpt.isPresent()) {
             GymClass gymClass = gymClassOpt.get();
-            response = GetClassResponse.newBuilder()
-                    .setId(gymClass.getId())
-                    .setName(gymClass.getName())
-                    .setTotalCapacity(gymClass.getCapacity().getTotal())
-                    .setAvailableSpots(gymClass.getCapacity().getAvailable())
-                    .setExists(true)
-                    .build();
+            response = toResponse(gymClass);
             logger.info("Class found: {} (available: {})", gymClass.getName(), gymClass.getCapacity().getAvailable());
         } else {
             response = GetClassResponse.newBuilder()
@@ -56,4 +65,90 @@ public class ClassGrpcService extends ClassServiceGrpc.ClassServiceImplBase {
         responseObserver.onNext(response);
         responseObserver.onCompleted();
     }
+
+    /**
+     * Batch lookup: one findAllById for the whole id list instead of N GetClass calls
+     */
+    @Override
+    public void getClasses(GetClassesRequest request, StreamObserver<GetClassesResponse> responseObserver) {
+        List<Long> ids = request.getIdsList().stream().distinct().toList();
+        logger.info("gRPC GetClasses called for {} ids", ids.size());
+
+        GetClassesResponse.Builder response = GetClassesResponse.newBuilder();
+        if (!ids.isEmpty()) {
+            classRepository.findAllById(ids).forEach(gymClass -> response.addClasses(toResponse(gymClass)));
+        }
+
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * Claim one or more spots, all or nothing (see SeatReservationService).
+     * The existence lookup only runs on the miss path, to tell "full" from "unknown".
+     */
+    @Override
+    public void reserveSpot(ReserveSpotRequest request, StreamObserver<ReserveSpotResponse> responseObserver) {
+        long classId = request.getClassId();
+        int seats = Math.max(1, request.getCount());
+
+        SeatReservationService.Outcome outcome = seatReservations.reserve(classId, seats, request.getRequestId());
+        boolean reserved = outcome.applied();
+
+        ReserveSpotResponse response = ReserveSpotResponse.newBuilder()
+                .setReserved(reserved)
+                .setExists(reserved || outcome.replayed() || outcome.isHot() || classRepository.existsById(classId))
+                .build();
+
+        if (reserved) {
+            logger.info("{} spot(s) reserved for class {}", seats, classId);
+        } else {
+            logger.warn("Reservation of {} spot(s) rejected for class {} (exists: {})",
+                    seats, classId, response.getExists());
+            // Hot classes are broadcast by the Lua script itself.
+            // A rejected multi-seat claim only proves that fewer seats are left, not none.
+            if (response.getExists() && !outcome.isHot() && !outcome.replayed() && seats == 1) {
+                capacityPublisher.publishSoldOut(classId);
+            }
+        }
+
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * Give one or more spots back (compensation for bookings that did not go through).
+     */
+    @Override
+    public void releaseSpot(ReleaseSpotRequest request, StreamObserver<ReleaseSpotResponse> responseObserver) {
+        long classId = request.getClassId();
+        int seats = Math.max(1, request.getCount());
+
+        SeatReservationService.Outcome outcome = seatReservations.release(classId, seats, request.getRequestId());
+        boolean released = outcome.applied();
+
+        ReleaseSpotResponse response = ReleaseSpotResponse.newBuilder()
+                .setReleased(released)
+                .setExists(released || outcome.replayed() || outcome.isHot() || classRepository.existsById(classId))
+                .build();
+
+        logger.info("ReleaseSpot of {} for class {}: released={}", seats, classId, released);
+        if (released && !outcome.isHot()) {
+            capacityPublisher.publishChanged(classId);
+        }
+
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
+
+    // Package-private: measured by the benchmarks module
+    static GetClassResponse toResponse(GymClass gymClass) {
+        return GetClassResponse.newBuilder()
+                .setId(gymClass.getId())
+                .setName(gymClass.getName())
+                .setTotalCapacity(gymClass.getCapacity().getTotal())
+                .setAvailableSpots(gymClass.getCapacity().getAvailable())
+                .setExists(true)
+                .build();
+    }
 }
@@ -0,0 +1,134 @@
+package com.gym.classservice.application.inventory;
+
+import com.gym.classservice.domain.model.GymClass;
+import com.gym.classservice.infrastructure.persistence.ClassJpaRepository;
+import com.gym.classservice.infrastructure.redis.ClassCapacityPublisher;
+import com.gym.classservice.infrastructure.redis.ClassCatalogueVersion;
+import com.gym.classservice.infrastructure.redis.HotInventoryStore;
+import com.gym.classservice.infrastructure.redis.HotInventoryStore.Counter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+
+/**
+ * Application Service: Hot inventory mode for flash class openings
+ *
+ * Responsibilities:
+ * - Move a class's available spots into a Redis counter (activate) and back (deactivate)
+ * - Write-behind: periodically copy changed counters to the available_spots column
+ *
+ * While a class is hot, Redis is the source of truth and Postgres lags by at most
+ * one write-behind interval. The row's hot_inventory flag keeps the conditional seat
+ * UPDATEs off it, and every write-back carries the counter's sequence number, so only
+ * the newest value ever lands in Postgres, whichever instance flushes it.
+ */
+@Service
+public class HotInventoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(HotInventoryService.class);
+
+    private final ClassJpaRepository classRepository;
+    private final HotInventoryStore hotInventoryStore;
+    private final ClassCatalogueVersion catalogueVersion;
+    private final ClassCapacityPublisher capacityPublisher;
+    private final int writeBehindBatchSize;
+
+    public HotInventoryService(ClassJpaRepository classRepository,
+                               HotInventoryStore hotInventoryStore,
+                               ClassCatalogueVersion catalogueVersion,
+                               ClassCapacityPublisher capacityPublisher,
+                               @Value("${app.hot-inventory.write-behind-batch-size:500}") int writeBehindBatchSize) {
+        this.classRepository = classRepository;
+        this.hotInventoryStore = hotInventoryStore;
+        this.catalogueVersion = catalogueVersion;
+        this.capacityPublisher = capacityPublisher;
+        this.writeBehindBatchSize = writeBehindBatchSize;
+    }
+
+    /**
+     * Load the current available spots into Redis.
+     *
+     * The row is flagged hot first: that UPDATE holds the row lock until commit, so a
+     * concurrent Postgres reservation either lands before the read below or finds the
+     * flag set and retries against the Redis counter. None is lost in the hand-over.
+     */
+    @Transactional
+    public void activate(Long classId) {
+        if (classRepository.startHotInventory(classId) == 0) {
+            if (!classRepository.existsById(classId)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Class not found with id: " + classId);
+            }
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Class " + classId + " is already in hot inventory mode");
+        }
+
+        GymClass gymClass = classRepository.findById(classId).orElseThrow();
+        Counter counter = new Counter(
+                gymClass.getCapacity().getAvailable(),
+                gymClass.getCapacity().getTotal(),
+                gymClass.getInventorySeq());
+
+        // A counter left behind in Redis: roll the flag back rather than overwrite it
+        if (!hotInventoryStore.activate(classId, counter)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Class " + classId + " is already in hot inventory mode");
+        }
+        catalogueVersion.bump(classId);
+        log.info("Hot inventory activated for class {} ({})", classId, gymClass.getCapacity());
+    }
+
+    /**
+     * Drop the Redis counter and write its final value to Postgres.
+     * Reservations fall back to the conditional UPDATE from here on.
+     *
+     * Between the two steps a reservation finds neither a counter nor a cold row and is
+     * rejected; the closing broadcast makes booking-service forget any sold-out mark from that window.
+     */
+    public void deactivate(Long classId) {
+        Counter counter = hotInventoryStore.deactivate(classId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "Class " + classId + " is not in hot inventory mode"));
+
+        try {
+            classRepository.endHotInventory(classId, counter.available(), counter.seq());
+        } catch (RuntimeException e) {
+            // Put the counter back, or its final value would be lost; deactivation can be retried
+            hotInventoryStore.activate(classId, counter);
+            throw e;
+        }
+        catalogueVersion.bump(classId);
+        capacityPublisher.publishChanged(classId);
+        log.info("Hot inventory deactivated for class {} (available: {})", classId, counter.available());
+    }
+
+    /**
+     * Write-behind: copy changed counters to Postgres.
+     * Each write carries the counter's sequence number and is skipped if a newer one
+     * (another instance's flush, or the final write of deactivate) already landed.
+     */
+    @Scheduled(fixedDelayString = "${app.hot-inventory.write-behind-interval-ms:500}")
+    public void flushDirtyCounters() {
+        Map<Long, Counter> counters = hotInventoryStore.drainDirty(writeBehindBatchSize);
+
+        counters.forEach((classId, counter) -> {
+            try {
+                classRepository.writeBackHotInventory(classId, counter.available(), counter.seq());
+                catalogueVersion.bump(classId);
+            } catch (RuntimeException e) {
+                log.error("Write-behind failed for class {}, will retry: {}", classId, e.getMessage());
+                hotInventoryStore.markDirty(classId);
+            }
+        });
+
+        if (!counters.isEmpty()) {
+            log.debug("Write-behind flushed {} hot inventory counters", counters.size());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.gym.classservice.application.inventory;
+
+import com.gym.classservice.infrastructure.persistence.ClassJpaRepository;
+import com.gym.classservice.infrastructure.persistence.SeatReservation;
+import com.gym.classservice.infrastructure.persistence.SeatReservationRepository;
+import com.gym.classservice.infrastructure.redis.ClassCatalogueVersion;
+import com.gym.classservice.infrastructure.redis.HotInventoryStore;
+import com.gym.shared.inventory.HotInventory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Application Service: Seat claims and releases behind ReserveSpot/ReleaseSpot
+ *
+ * Seats are claimed against the Redis counter if the class is hot, otherwise with the
+ * conditional UPDATE. The UPDATE skips hot rows, so a miss there is retried against Redis
+ * once, in case the class was activated after the first check.
+ *
+ * Calls that carry a request id are recorded in the reservation ledger, in the same
+ * transaction as the claim:
+ * - a retried ReserveSpot gets its first answer again instead of claiming twice
+ * - ReleaseSpot gives back exactly the claim with that id, at most once
+ * - a ReleaseSpot that overtakes its claim (the client's deadline expired) leaves a
+ *   RELEASED row behind, so the late claim is rejected; releasing is therefore always safe
+ */
+@Service
+public class SeatReservationService {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatReservationService.class);
+
+    private final ClassJpaRepository classRepository;
+    private final HotInventoryStore hotInventoryStore;
+    private final SeatReservationRepository reservationRepository;
+    private final ClassCatalogueVersion catalogueVersion;
+    private final Duration retention;
+
+    public SeatReservationService(ClassJpaRepository classRepository,
+                                  HotInventoryStore hotInventoryStore,
+                                  SeatReservationRepository reservationRepository,
+                                  ClassCatalogueVersion catalogueVersion,
+                                  @Value("${app.seat-reservations.retention-ms:3600000}") long retentionMs) {
+        this.classRepository = classRepository;
+        this.hotInventoryStore = hotInventoryStore;
+        this.reservationRepository = reservationRepository;
+        this.catalogueVersion = catalogueVersion;
+        this.retention = Duration.ofMillis(retentionMs);
+    }
+
+    /**
+     * Claim {@code seats} spots, all or nothing
+     *
+     * @param requestId ledger key, or empty for a one-shot claim (older clients)
+     */
+    @Transactional
+    public Outcome reserve(long classId, int seats, String requestId) {
+        if (!requestId.isEmpty()
+                && reservationRepository.insertIfAbsent(requestId, classId, seats, SeatReservation.RESERVED) == 0) {
+            // A retry of an applied claim, or a claim that was released (or cancelled) already
+            boolean held = reservationRepository.findStatus(requestId)
+                    .map(SeatReservation.RESERVED::equals)
+                    .orElse(false);
+            log.info("Repeated ReserveSpot {} for class {} (held: {})", requestId, classId, held);
+            return new Outcome(held, HotInventory.Result.NOT_HOT, true);
+        }
+
+        HotInventory.Result hotResult = hotInventoryStore.tryReserve(classId, seats);
+        boolean reserved = hotResult == HotInventory.Result.NOT_HOT
+                && classRepository.reserveSpots(classId, seats) == 1;
+        if (!reserved && hotResult == HotInventory.Result.NOT_HOT) {
+            hotResult = hotInventoryStore.tryReserve(classId, seats);
+        }
+        reserved = reserved || hotResult == HotInventory.Result.APPLIED;
+
+        if (!reserved) {
+            // Nothing claimed: drop the ledger row, so a retry is evaluated afresh
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        } else if (hotResult == HotInventory.Result.NOT_HOT) {
+            catalogueVersion.bump(classId);
+        }
+        return new Outcome(reserved, hotResult, false);
+    }
+
+    /**
+     * Give {@code seats} spots back, all or nothing
+     *
+     * @param requestId the claim to undo, or empty for a one-shot release (older clients)
+     */
+    @Transactional
+    public Outcome release(long classId, int seats, String requestId) {
+        if (!requestId.isEmpty() && !takeReleaseFromLedger(classId, seats, requestId)) {
+            log.info("ReleaseSpot {} for class {}: no seats held under this id", requestId, classId);
+            return new Outcome(false, HotInventory.Result.NOT_HOT, true);
+        }
+
+        HotInventory.Result hotResult = hotInventoryStore.tryRelease(classId, seats);
+        boolean released = hotResult == HotInventory.Result.NOT_HOT
+                && classRepository.releaseSpots(classId, seats) == 1;
+        if (!released && hotResult == HotInventory.Result.NOT_HOT) {
+            hotResult = hotInventoryStore.tryRelease(classId, seats);
+        }
+        released = released || hotResult == HotInventory.Result.APPLIED;
+
+        if (!released) {
+            // Keep the claim held in the ledger, so a retried release can still give it back
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        } else if (hotResult == HotInventory.Result.NOT_HOT) {
+            catalogueVersion.bump(classId);
+        }
+        return new Outcome(released, hotResult, false);
+    }
+
+    /**
+     * @return true if a held claim was marked released (its seats must be given back now)
+     */
+    private boolean takeReleaseFromLedger(long classId, int seats, String requestId) {
+        if (reservationRepository.markReleased(requestId) == 1) {
+            return true;
+        }
+        if (reservationRepository.insertIfAbsent(requestId, classId, seats, SeatReservation.RELEASED) == 1) {
+            // The claim never landed; this row makes sure it never will
+            return false;
+        }
+        // The insert waited for a concurrent claim with this id, which has committed since
+        return reservationRepository.markReleased(requestId) == 1;
+    }
+
+    /**
+     * Forget ledger rows older than any client could still retry or release them
+     */
+    @Scheduled(fixedDelayString = "${app.seat-reservations.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        int purged = reservationRepository.deleteCreatedBefore(Instant.now().minus(retention));
+        if (purged > 0) {
+            log.debug("Purged {} expired seat reservations", purged);
+        }
+    }
+
+    /**
+     * @param applied  seats claimed / given back
+     * @param hotResult last hot inventory answer (NOT_HOT: the class was served from Postgres)
+     * @param replayed answered from the ledger, no seat was touched
+     */
+    public record Outcome(boolean applied, HotInventory.Result hotResult, boolean replayed) {
+
+        public boolean isHot() {
+            return hotResult != HotInventory.Result.NOT_HOT;
+        }
+    }
+}
@@ -1,20 +1,23 @@
 package com.gym.classservice.application.rest;
 
+import com.gym.classservice.application.catalogue.ClassCatalogue;
+import com.gym.classservice.application.dto.ClassPageResponse;
 import com.gym.classservice.application.dto.ClassResponse;
 import com.gym.classservice.application.dto.CreateClassRequest;
+import com.gym.classservice.application.inventory.HotInventoryService;
 import com.gym.classservice.domain.model.Capacity;
 import com.gym.classservice.domain.model.GymClass;
 import com.gym.classservice.infrastructure.persistence.ClassJpaRepository;
+import com.gym.classservice.infrastructure.redis.ClassCatalogueVersion;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 /**
  * Application Layer: REST Controller
  *
@@ -29,10 +32,22 @@ import java.util.stream.Collectors;
 @Transactional
 public class ClassController {
 
-    private final ClassJpaRepository classRepository;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
 
-    public ClassController(ClassJpaRepository classRepository) {
+    private final ClassJpaRepository classRepository;
+    private final HotInventoryService hotInventoryService;
+    private final ClassCatalogue classCatalogue;
+    private final ClassCatalogueVersion catalogueVersion;
+
+    public ClassController(ClassJpaRepository classRepository,
+                           HotInventoryService hotInventoryService,
+                           ClassCatalogue classCatalogue,
+                           ClassCatalogueVersion catalogueVersion) {
         this.classRepository = classRepository;
+        this.hotInventoryService = hotInventoryService;
+        this.classCatalogue = classCatalogue;
+        this.catalogueVersion = catalogueVersion;
     }
 
     @PostMapping
@@ -46,40 +61,115 @@ public class ClassController {
         // 3. Persist via Spring Data JPA
         GymClass savedClass = classRepository.save(gymClass);
 
-        // 4. Convert to response DTO
+        // 4. Invalidate cached catalogue ETags once the insert is committed
+        catalogueVersion.bump();
+
+        // 5. Convert to response DTO
         ClassResponse response = ClassResponse.fromDomain(savedClass);
 
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
 
+    /**
+     * GET /classes?cursor=&size=
+     * List one catalogue page, in id order
+     *
+     * Conditional: a matching If-None-Match gets 304. While no class has changed
+     * since the page was last served, that answer comes without a database read,
+     * hence no surrounding transaction here.
+     */
     @GetMapping
-    @Transactional(readOnly = true)
-    public ResponseEntity<List<ClassResponse>> getAllClasses() {
-        List<GymClass> classes = classRepository.findAll();
-
-        List<ClassResponse> response = classes.stream()
-                .map(ClassResponse::fromDomain)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(response);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<ClassPageResponse> getAllClasses(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        long afterId = parseCursor(cursor);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        String knownETag = classCatalogue.knownETag(afterId, pageSize);
+        if (knownETag != null && matches(ifNoneMatch, knownETag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(knownETag).build();
+        }
+
+        ClassCatalogue.Page page = classCatalogue.loadPage(afterId, pageSize);
+        if (matches(ifNoneMatch, page.eTag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(page.eTag()).build();
+        }
+
+        return ResponseEntity.ok().eTag(page.eTag()).body(page.body());
     }
 
     /**
      * GET /classes/{id}
-     * Get a single gym class by ID
+     * Get a single gym class by ID (304 if If-None-Match still matches its version)
      */
     @GetMapping("/{id}")
     @Transactional(readOnly = true)
-    public ResponseEntity<ClassResponse> getClassById(@PathVariable Long id) {
+    public ResponseEntity<ClassResponse> getClassById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         GymClass gymClass = classRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(
                     HttpStatus.NOT_FOUND,
                     "Class not found with id: " + id
                 ));
 
+        String eTag = ClassCatalogue.eTag(gymClass);
+        if (matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
         ClassResponse response = ClassResponse.fromDomain(gymClass);
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(eTag).body(response);
+    }
+
+    /**
+     * POST /classes/{id}/hot-inventory
+     * Move the class's seat counter into Redis ahead of a flash opening
+     */
+    @PostMapping("/{id}/hot-inventory")
+    public ResponseEntity<Void> activateHotInventory(@PathVariable Long id) {
+        hotInventoryService.activate(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * DELETE /classes/{id}/hot-inventory
+     * Write the final counter back to Postgres and leave hot inventory mode
+     */
+    @DeleteMapping("/{id}/hot-inventory")
+    public ResponseEntity<Void> deactivateHotInventory(@PathVariable Long id) {
+        hotInventoryService.deactivate(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    private static long parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + cursor);
+        }
+    }
+
+    /**
+     * If-None-Match uses weak comparison (RFC 9110): W/ prefixes are ignored
+     */
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
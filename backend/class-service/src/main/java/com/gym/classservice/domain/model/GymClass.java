@@ -17,7 +17,8 @@ import java.util.Objects;
 public class GymClass {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "classes_id_seq")
+    @SequenceGenerator(name = "classes_id_seq", sequenceName = "classes_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -26,6 +27,28 @@ public class GymClass {
     @Embedded
     private Capacity capacity;
 
+    /**
+     * Bumped on every change, including the bulk seat UPDATEs in ClassJpaRepository.
+     * Source of the catalogue's ETags.
+     */
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    /**
+     * Hot inventory hand-over (see HotInventoryService): while set, the Redis counter owns
+     * the available spots and the conditional seat UPDATEs leave the row alone.
+     */
+    @Column(name = "hot_inventory", nullable = false)
+    private boolean hotInventory;
+
+    /**
+     * Sequence number of the hot inventory counter value last written back.
+     * A write-back carrying an older number is ignored.
+     */
+    @Column(name = "inventory_seq", nullable = false)
+    private long inventorySeq;
+
     // JPA requires no-arg constructor
     protected GymClass() {
     }
@@ -78,6 +101,18 @@ public class GymClass {
         return capacity;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isHotInventory() {
+        return hotInventory;
+    }
+
+    public long getInventorySeq() {
+        return inventorySeq;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,18 @@
+package com.gym.classservice.infrastructure.grpc;
+
+import com.gym.shared.metrics.GrpcMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * gRPC server metrics: per-method timings of every call served
+ */
+@Configuration
+public class GrpcMetricsConfig {
+
+    @GrpcGlobalServerInterceptor
+    public GrpcMetricsInterceptor grpcMetricsInterceptor(MeterRegistry meterRegistry) {
+        return new GrpcMetricsInterceptor(meterRegistry);
+    }
+}
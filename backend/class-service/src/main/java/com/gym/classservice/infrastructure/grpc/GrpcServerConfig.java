@@ -0,0 +1,24 @@
+package com.gym.classservice.infrastructure.grpc;
+
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+/**
+ * gRPC server configuration for virtual-thread mode
+ *
+ * Service methods block on JDBC, so each call gets its own virtual thread
+ * instead of a slot in the default cached platform-thread pool.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class GrpcServerConfig {
+
+    @Bean
+    public GrpcServerConfigurer virtualThreadServerConfigurer() {
+        return serverBuilder -> serverBuilder.executor(new VirtualThreadTaskExecutor("grpc-server-"));
+    }
+}
@@ -1,12 +1,89 @@
 package com.gym.classservice.infrastructure.persistence;
 
 import com.gym.classservice.domain.model.GymClass;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 /**
  * Spring Data JPA Repository
  * Simplified: Works directly with GymClass domain model
  * Spring Data generates all CRUD operations
+ *
+ * Bulk UPDATEs bypass Hibernate's optimistic locking, so they bump the version themselves.
+ * The seat UPDATEs skip classes in hot inventory mode: their spots are owned by the Redis counter.
  */
 public interface ClassJpaRepository extends JpaRepository<GymClass, Long> {
+
+    /**
+     * One catalogue page: classes after the given id, in id order
+     */
+    List<GymClass> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * Atomically claim {@code seats} spots, all or nothing.
+     *
+     * Single conditional UPDATE: no entity load, no lost updates.
+     * Concurrent callers serialize on the row lock, and the
+     * available_spots >= seats guard makes overbooking impossible.
+     *
+     * @return 1 if the spots were claimed, 0 if not enough are left, the class is hot or does not exist
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE GymClass c SET c.capacity.available = c.capacity.available - :seats, c.version = c.version + 1 " +
+           "WHERE c.id = :id AND c.capacity.available >= :seats AND c.hotInventory = false")
+    int reserveSpots(@Param("id") Long id, @Param("seats") int seats);
+
+    /**
+     * Atomically give {@code seats} spots back, all or nothing (never above total capacity).
+     *
+     * @return 1 if the spots were released, 0 if that would exceed capacity, the class is hot or does not exist
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE GymClass c SET c.capacity.available = c.capacity.available + :seats, c.version = c.version + 1 " +
+           "WHERE c.id = :id AND c.capacity.available + :seats <= c.capacity.total AND c.hotInventory = false")
+    int releaseSpots(@Param("id") Long id, @Param("seats") int seats);
+
+    /**
+     * Hand the class over to hot inventory mode. The row stays locked until the
+     * surrounding transaction commits, so no seat UPDATE can slip in before the counter is in Redis.
+     *
+     * @return 1 if flagged, 0 if the class is already hot or does not exist
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE GymClass c SET c.hotInventory = true, c.version = c.version + 1 " +
+           "WHERE c.id = :id AND c.hotInventory = false")
+    int startHotInventory(@Param("id") Long id);
+
+    /**
+     * Write-behind of a hot inventory counter: only applied if {@code seq} is newer than
+     * the value already written, so a delayed or reordered flush never overwrites a later one.
+     *
+     * @return 1 if written, 0 if superseded, out of range or the class does not exist
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE GymClass c SET c.capacity.available = :available, c.inventorySeq = :seq, c.version = c.version + 1 " +
+           "WHERE c.id = :id AND c.inventorySeq < :seq AND :available >= 0 AND c.capacity.total >= :available")
+    int writeBackHotInventory(@Param("id") Long id, @Param("available") int available, @Param("seq") long seq);
+
+    /**
+     * Final write-back of a deactivated counter: hands the seats back to the conditional UPDATEs.
+     *
+     * @return 1 if written, 0 if superseded, out of range or the class does not exist
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE GymClass c SET c.capacity.available = :available, c.inventorySeq = :seq, " +
+           "c.hotInventory = false, c.version = c.version + 1 " +
+           "WHERE c.id = :id AND c.inventorySeq < :seq AND :available >= 0 AND c.capacity.total >= :available")
+    int endHotInventory(@Param("id") Long id, @Param("available") int available, @Param("seq") long seq);
 }
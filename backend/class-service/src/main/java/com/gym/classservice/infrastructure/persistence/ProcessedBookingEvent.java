@@ -0,0 +1,45 @@
+package com.gym.classservice.infrastructure.persistence;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * Processed-event index: one row per BookingCreatedEvent already applied
+ *
+ * Keyed on bookingId and written in the same transaction as the event's effects,
+ * so an event is either fully applied and recorded, or neither.
+ */
+@Entity
+@Table(name = "processed_booking_events")
+public class ProcessedBookingEvent {
+
+    @Id
+    @Column(name = "booking_id")
+    private Long bookingId;
+
+    @Column(name = "class_id", nullable = false)
+    private Long classId;
+
+    @Column(name = "processed_at", nullable = false)
+    private Instant processedAt;
+
+    // JPA requires no-arg constructor
+    protected ProcessedBookingEvent() {
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public Long getClassId() {
+        return classId;
+    }
+
+    public Instant getProcessedAt() {
+        return processedAt;
+    }
+}
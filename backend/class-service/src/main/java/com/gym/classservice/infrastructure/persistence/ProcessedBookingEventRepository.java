@@ -0,0 +1,26 @@
+package com.gym.classservice.infrastructure.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Spring Data JPA Repository for the processed-event index
+ */
+public interface ProcessedBookingEventRepository extends JpaRepository<ProcessedBookingEvent, Long> {
+
+    /**
+     * Record a group of events for one class as processed, skipping any that already are.
+     * One statement per group, however many bookings it holds
+     * (the ids are bound as a single array: a collection parameter would expand into a row value).
+     *
+     * @return number of events recorded now (lower than the input size if some were duplicates)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO {h-schema}processed_booking_events (booking_id, class_id, processed_at) " +
+                   "SELECT unnest(CAST(:bookingIds AS bigint[])), :classId, now() " +
+                   "ON CONFLICT (booking_id) DO NOTHING",
+           nativeQuery = true)
+    int insertAllIfAbsent(@Param("classId") Long classId, @Param("bookingIds") Long[] bookingIds);
+}
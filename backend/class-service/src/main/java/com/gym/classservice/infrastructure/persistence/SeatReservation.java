@@ -0,0 +1,63 @@
+package com.gym.classservice.infrastructure.persistence;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * Reservation ledger: one row per ReserveSpot request id
+ *
+ * Written in the same transaction as the seat claim, so a row with status RESERVED
+ * means the seats are held. ReleaseSpot flips it to RELEASED exactly once; a RELEASED
+ * row written before any claim (the claim timed out on the client) cancels the claim.
+ */
+@Entity
+@Table(name = "seat_reservations")
+public class SeatReservation {
+
+    public static final String RESERVED = "RESERVED";
+    public static final String RELEASED = "RELEASED";
+
+    @Id
+    @Column(name = "request_id", length = 64)
+    private String requestId;
+
+    @Column(name = "class_id", nullable = false)
+    private Long classId;
+
+    @Column(nullable = false)
+    private int seats;
+
+    @Column(nullable = false, length = 16)
+    private String status;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // JPA requires no-arg constructor
+    protected SeatReservation() {
+    }
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    public Long getClassId() {
+        return classId;
+    }
+
+    public int getSeats() {
+        return seats;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
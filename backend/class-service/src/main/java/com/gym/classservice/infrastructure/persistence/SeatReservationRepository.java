@@ -0,0 +1,48 @@
+package com.gym.classservice.infrastructure.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Spring Data JPA Repository for the reservation ledger
+ *
+ * Inserts go through ON CONFLICT DO NOTHING: a second insert of the same request id
+ * waits for the first one's transaction, then reports 0 instead of failing.
+ */
+public interface SeatReservationRepository extends JpaRepository<SeatReservation, String> {
+
+    /**
+     * @return 1 if recorded, 0 if the request id is already known
+     */
+    @Modifying
+    @Query(value = "INSERT INTO {h-schema}seat_reservations (request_id, class_id, seats, status, created_at) " +
+                   "VALUES (:requestId, :classId, :seats, :status, now()) " +
+                   "ON CONFLICT (request_id) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("requestId") String requestId,
+                       @Param("classId") Long classId,
+                       @Param("seats") int seats,
+                       @Param("status") String status);
+
+    @Query("SELECT r.status FROM SeatReservation r WHERE r.requestId = :requestId")
+    Optional<String> findStatus(@Param("requestId") String requestId);
+
+    /**
+     * @return 1 if the reservation was held and is released now, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE SeatReservation r SET r.status = '" + SeatReservation.RELEASED + "' " +
+           "WHERE r.requestId = :requestId AND r.status = '" + SeatReservation.RESERVED + "'")
+    int markReleased(@Param("requestId") String requestId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SeatReservation r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+}
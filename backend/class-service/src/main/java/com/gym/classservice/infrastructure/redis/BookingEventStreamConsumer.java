@@ -0,0 +1,340 @@
+package com.gym.classservice.infrastructure.redis;
+
+import com.gym.classservice.application.events.BookingEventListener;
+import com.gym.classservice.infrastructure.tracing.BookingEventTracing;
+import com.gym.shared.events.BookingBatchCreatedEvent;
+import com.gym.shared.events.BookingCreatedEvent;
+import com.gym.shared.events.BookingEventCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Span;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Infrastructure Layer: Consumes booking events from a Redis Stream consumer group
+ *
+ * - Batched reads: XREADGROUP COUNT n BLOCK t, then ONE XACK for the whole batch
+ * - Coalescing: reads keep filling the batch for a short window, then the batch is
+ *   grouped by classId and each group is applied by BookingEventListener in one transaction
+ * - Explicit ack: an entry whose handling fails stays pending and is retried
+ * - Recovery: entries pending longer than claim-idle on a dead consumer are XCLAIMed;
+ *   entries that keep failing are parked on a dead-letter stream
+ *
+ * Every event is handled by exactly one Class Service instance of the group,
+ * so BookingEventListener scales horizontally.
+ */
+@Component
+public class BookingEventStreamConsumer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingEventStreamConsumer.class);
+
+    private static final String DEAD_LETTER_SUFFIX = ":dead";
+    private static final String REASON_FIELD = "reason";
+
+    private final RedisTemplate<String, byte[]> streamTemplate;
+    private final Map<String, BookingEventCodec> codecsByContentType;
+    private final BookingEventListener eventListener;
+    private final String group;
+    private final Consumer consumer;
+    private final int batchSize;
+    private final Duration blockTimeout;
+    private final long coalesceWindowMs;
+    private final Duration claimIdle;
+    private final long maxDeliveries;
+    private final boolean virtualThreads;
+    private final MeterRegistry meterRegistry;
+    private final BookingEventTracing eventTracing;
+
+    private volatile boolean running;
+    private long lastClaimCheck;
+
+    public BookingEventStreamConsumer(RedisTemplate<String, byte[]> streamTemplate,
+                                      List<BookingEventCodec> codecs,
+                                      BookingEventListener eventListener,
+                                      MeterRegistry meterRegistry,
+                                      BookingEventTracing eventTracing,
+                                      @Value("${app.booking-events.group:class-service}") String group,
+                                      @Value("${app.booking-events.batch-size:100}") int batchSize,
+                                      @Value("${app.booking-events.block-ms:2000}") long blockMs,
+                                      @Value("${app.booking-events.coalesce-window-ms:50}") long coalesceWindowMs,
+                                      @Value("${app.booking-events.claim-idle-ms:30000}") long claimIdleMs,
+                                      @Value("${app.booking-events.max-deliveries:5}") long maxDeliveries,
+                                      Environment environment) {
+        this.streamTemplate = streamTemplate;
+        this.codecsByContentType = codecs.stream()
+                .collect(Collectors.toMap(BookingEventCodec::contentType, Function.identity()));
+        this.eventListener = eventListener;
+        this.group = group;
+        this.consumer = Consumer.from(group, group + "-" + UUID.randomUUID());
+        this.batchSize = batchSize;
+        this.blockTimeout = Duration.ofMillis(blockMs);
+        this.coalesceWindowMs = coalesceWindowMs;
+        this.claimIdle = Duration.ofMillis(claimIdleMs);
+        this.maxDeliveries = maxDeliveries;
+        // Same switch as @ConditionalOnThreading: spring.threads.virtual.enabled on a JDK 21+ runtime
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+        this.meterRegistry = meterRegistry;
+        this.eventTracing = eventTracing;
+    }
+
+    @Override
+    public void start() {
+        createGroupIfMissing();
+        running = true;
+
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("booking-events-");
+        executor.setVirtualThreads(virtualThreads);
+        executor.execute(this::pollLoop);
+
+        log.info("Consuming {} as {}", RedisConfig.BOOKING_EVENTS_STREAM, consumer.getName());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void pollLoop() {
+        while (running) {
+            try {
+                claimStaleEntries();
+
+                handleAndAck(readWindow());
+            } catch (RuntimeException e) {
+                if (running) {
+                    log.error("Booking event poll failed: {}", e.getMessage());
+                    sleepQuietly(blockTimeout);
+                }
+            }
+        }
+    }
+
+    /**
+     * Block for the first entries, then keep topping the batch up until the
+     * coalescing window closes or the batch is full
+     */
+    private List<MapRecord<String, String, byte[]>> readWindow() {
+        List<MapRecord<String, String, byte[]>> window = new ArrayList<>(read(batchSize, blockTimeout));
+        long deadline = System.currentTimeMillis() + coalesceWindowMs;
+
+        long remaining;
+        while (!window.isEmpty() && window.size() < batchSize
+                && (remaining = deadline - System.currentTimeMillis()) > 0) {
+            // BLOCK 0 would wait forever, so never go below 1 ms
+            List<MapRecord<String, String, byte[]>> more = read(batchSize - window.size(), Duration.ofMillis(Math.max(1, remaining)));
+            if (more.isEmpty()) {
+                break;
+            }
+            window.addAll(more);
+        }
+        return window;
+    }
+
+    // read(Consumer, StreamReadOptions, StreamOffset<K>...) builds a generic varargs array
+    @SuppressWarnings("unchecked")
+    private List<MapRecord<String, String, byte[]>> read(int count, Duration block) {
+        List<MapRecord<String, String, byte[]>> records = streams().read(consumer,
+                StreamReadOptions.empty().count(count).block(block),
+                StreamOffset.create(RedisConfig.BOOKING_EVENTS_STREAM, ReadOffset.lastConsumed()));
+        return records == null ? List.of() : records;
+    }
+
+    /**
+     * Group a batch by classId and apply each group in one listener call;
+     * ack everything that was applied in a single XACK.
+     * Entries of a failed group, and undecodable entries, stay pending for redelivery.
+     */
+    private void handleAndAck(List<MapRecord<String, String, byte[]>> batch) {
+        if (batch == null || batch.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<RecordId>> recordIdsByClass = new LinkedHashMap<>();
+        Map<Long, List<BookingCreatedEvent>> eventsByClass = new LinkedHashMap<>();
+        for (MapRecord<String, String, byte[]> record : batch) {
+            try {
+                // A group booking entry expands to several events, all of the same class
+                List<BookingCreatedEvent> events = decode(record);
+                if (events.isEmpty()) {
+                    continue;
+                }
+                Long classId = events.get(0).getClassId();
+                recordIdsByClass.computeIfAbsent(classId, id -> new ArrayList<>()).add(record.getId());
+                eventsByClass.computeIfAbsent(classId, id -> new ArrayList<>()).addAll(events);
+            } catch (RuntimeException e) {
+                countFailure("decode", e);
+                log.error("Failed to decode booking event {}, leaving it pending: {}", record.getId(), e.getMessage());
+            }
+        }
+
+        List<RecordId> handled = new ArrayList<>(batch.size());
+        eventsByClass.forEach((classId, events) -> {
+            List<Span> spans = eventTracing.startApply(events);
+            RuntimeException failure = null;
+            try {
+                eventListener.handleBookingsCreated(classId, events);
+                handled.addAll(recordIdsByClass.get(classId));
+            } catch (RuntimeException e) {
+                failure = e;
+                countFailure("apply", e);
+                log.error("Failed to handle {} booking events for class {}, leaving them pending: {}",
+                        events.size(), classId, e.getMessage());
+            } finally {
+                eventTracing.finish(spans, failure);
+            }
+        });
+
+        if (!handled.isEmpty()) {
+            streams().acknowledge(RedisConfig.BOOKING_EVENTS_STREAM, group, handled.toArray(RecordId[]::new));
+        }
+    }
+
+    private void countFailure(String stage, RuntimeException failure) {
+        Counter.builder("booking_events.failures")
+                .description("Booking events left pending, by stage and exception type")
+                .tag("stage", stage)
+                .tag("exception", failure.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Decode one stream entry by its content-type and type fields (entries without a content type
+     * are JSON, entries without a type predate types and are single BookingCreatedEvents)
+     */
+    private List<BookingCreatedEvent> decode(MapRecord<String, String, byte[]> record) {
+        byte[] contentType = record.getValue().get(BookingCreatedEvent.CONTENT_TYPE_FIELD);
+        byte[] type = record.getValue().get(BookingCreatedEvent.TYPE_FIELD);
+        byte[] payload = record.getValue().get(BookingCreatedEvent.PAYLOAD_FIELD);
+
+        BookingEventCodec codec = codecFor(contentType == null
+                ? BookingEventCodec.JSON
+                : new String(contentType, StandardCharsets.UTF_8));
+        if (type != null && BookingBatchCreatedEvent.TYPE.equals(new String(type, StandardCharsets.UTF_8))) {
+            return codec.bookingBatchCreated().deserialize(payload).toBookingEvents();
+        }
+        return List.of(codec.bookingCreated().deserialize(payload));
+    }
+
+    private BookingEventCodec codecFor(String contentType) {
+        BookingEventCodec codec = codecsByContentType.get(contentType);
+        if (codec == null) {
+            throw new IllegalArgumentException("Unsupported booking event content type: " + contentType);
+        }
+        return codec;
+    }
+
+    /**
+     * Take over entries that sat unacked on some consumer for longer than claim-idle
+     * (crashed instance, or our own failed attempts). Runs at most once per claim-idle period.
+     */
+    private void claimStaleEntries() {
+        long now = System.currentTimeMillis();
+        if (now - lastClaimCheck < claimIdle.toMillis()) {
+            return;
+        }
+        lastClaimCheck = now;
+
+        PendingMessages pending = streams().pending(RedisConfig.BOOKING_EVENTS_STREAM, group, Range.unbounded(), batchSize);
+        List<RecordId> stale = new ArrayList<>();
+        for (PendingMessage message : pending) {
+            if (message.getElapsedTimeSinceLastDelivery().compareTo(claimIdle) < 0) {
+                continue;
+            }
+            if (message.getTotalDeliveryCount() >= maxDeliveries) {
+                deadLetterPending(message.getId());
+            } else {
+                stale.add(message.getId());
+            }
+        }
+
+        if (!stale.isEmpty()) {
+            List<MapRecord<String, String, byte[]>> claimed = streams().claim(RedisConfig.BOOKING_EVENTS_STREAM,
+                    group, consumer.getName(), claimIdle, stale.toArray(RecordId[]::new));
+            log.warn("Claimed {} stale booking events", claimed.size());
+            handleAndAck(claimed);
+        }
+    }
+
+    /**
+     * Move a poison entry to the dead-letter stream and ack it, so it stops being redelivered
+     */
+    private void deadLetterPending(RecordId id) {
+        List<MapRecord<String, String, byte[]>> records = streams().range(RedisConfig.BOOKING_EVENTS_STREAM,
+                Range.closed(id.getValue(), id.getValue()));
+        records.forEach(record -> deadLetter(record, "Exceeded " + maxDeliveries + " deliveries"));
+        streams().acknowledge(RedisConfig.BOOKING_EVENTS_STREAM, group, id);
+
+        log.error("Booking event {} exceeded {} deliveries, moved to dead-letter stream", id, maxDeliveries);
+    }
+
+    /**
+     * Copy an entry to the dead-letter stream, together with the reason (the caller acks it)
+     */
+    private void deadLetter(MapRecord<String, String, byte[]> record, String reason) {
+        Map<String, byte[]> entry = new LinkedHashMap<>(record.getValue());
+        entry.put(REASON_FIELD, reason.getBytes(StandardCharsets.UTF_8));
+        streams().add(RedisConfig.BOOKING_EVENTS_STREAM + DEAD_LETTER_SUFFIX, entry);
+    }
+
+    private void createGroupIfMissing() {
+        try {
+            // MKSTREAM: the group can be created before the first event is ever written
+            streamTemplate.execute((RedisCallback<Object>) connection ->
+                    connection.streamCommands().xGroupCreate(
+                            RedisConfig.BOOKING_EVENTS_STREAM.getBytes(StandardCharsets.UTF_8),
+                            group, ReadOffset.from("0"), true));
+        } catch (RedisSystemException e) {
+            // BUSYGROUP: already exists
+            log.debug("Consumer group {} already exists", group);
+        }
+    }
+
+    private StreamOperations<String, String, byte[]> streams() {
+        return streamTemplate.opsForStream();
+    }
+
+    private static void sleepQuietly(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.gym.classservice.infrastructure.redis;
+
+import com.gym.shared.events.ClassCapacityChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Infrastructure Layer: Broadcasts capacity changes so other services can invalidate near-caches
+ *
+ * Best effort: a lost broadcast only means a cache entry lives until its TTL.
+ */
+@Component
+public class ClassCapacityPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(ClassCapacityPublisher.class);
+
+    private final RedisTemplate<String, ClassCapacityChangedEvent> capacityEventTemplate;
+
+    public ClassCapacityPublisher(RedisTemplate<String, ClassCapacityChangedEvent> capacityEventTemplate) {
+        this.capacityEventTemplate = capacityEventTemplate;
+    }
+
+    public void publishSoldOut(Long classId) {
+        publish(new ClassCapacityChangedEvent(classId, 0));
+    }
+
+    /**
+     * Availability changed to an unknown value: consumers drop their cached entry
+     */
+    public void publishChanged(Long classId) {
+        publish(new ClassCapacityChangedEvent(classId, null));
+    }
+
+    private void publish(ClassCapacityChangedEvent event) {
+        try {
+            capacityEventTemplate.convertAndSend(ClassCapacityChangedEvent.CHANNEL, event);
+        } catch (RuntimeException e) {
+            log.warn("Failed to broadcast capacity change for class {}: {}", event.getClassId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.gym.classservice.infrastructure.redis;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Infrastructure Layer: Catalogue change counters shared by all Class Service instances
+ *
+ * - A catalogue-wide generation, bumped when the set of classes changes (a class is created)
+ * - One version per class, bumped when its seats or hot inventory state change,
+ *   so a busy class only invalidates the pages that list it
+ *
+ * Every write bumps AFTER commit. A reader that samples BEFORE querying Postgres
+ * therefore never pairs a version with older data: a write racing the read only
+ * leaves a superseded version behind (a spurious cache miss).
+ *
+ * A bump that fails also advances a local counter that is part of every snapshot, so
+ * this instance stops trusting what it remembered; other instances rely on their TTL.
+ */
+@Component
+public class ClassCatalogueVersion {
+
+    public static final String GENERATION_KEY = "class-catalogue:generation";
+    public static final String CLASS_VERSION_KEY_PREFIX = "class-catalogue:class:";
+
+    private static final Logger log = LoggerFactory.getLogger(ClassCatalogueVersion.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final AtomicLong failedBumps = new AtomicLong();
+
+    public ClassCatalogueVersion(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Snapshot of the generation and of the given classes' versions, in one MGET
+     *
+     * @return opaque snapshot, equal to a later one only if none of them changed in between,
+     *         or null if Redis is unavailable (callers must not cache)
+     */
+    public String current(List<Long> classIds) {
+        List<String> keys = new ArrayList<>(classIds.size() + 1);
+        keys.add(GENERATION_KEY);
+        classIds.forEach(classId -> keys.add(CLASS_VERSION_KEY_PREFIX + classId));
+
+        try {
+            List<String> versions = redisTemplate.opsForValue().multiGet(keys);
+            if (versions == null) {
+                return null;
+            }
+            StringBuilder snapshot = new StringBuilder().append(failedBumps.get());
+            versions.forEach(version -> snapshot.append(':').append(version != null ? version : "0"));
+            return snapshot.toString();
+        } catch (RuntimeException e) {
+            log.warn("Catalogue versions unavailable: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Record a change to the set of classes: after commit if called inside a transaction, immediately otherwise
+     */
+    public void bump() {
+        afterCommit(GENERATION_KEY);
+    }
+
+    /**
+     * Record a change to one class (seats, hot inventory state), same timing as {@link #bump()}
+     */
+    public void bump(long classId) {
+        afterCommit(CLASS_VERSION_KEY_PREFIX + classId);
+    }
+
+    private void afterCommit(String key) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(key);
+                }
+            });
+        } else {
+            increment(key);
+        }
+    }
+
+    private void increment(String key) {
+        try {
+            redisTemplate.opsForValue().increment(key);
+        } catch (RuntimeException e) {
+            // Local snapshots change with it: nothing remembered before the failure matches any more
+            failedBumps.incrementAndGet();
+            log.error("Failed to bump {}: {}", key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.gym.classservice.infrastructure.redis;
+
+import com.gym.shared.events.ClassCapacityChangedEvent;
+import com.gym.shared.inventory.HotInventory;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Infrastructure Layer: Redis-resident seat counters (hot inventory mode)
+ *
+ * All counter changes go through Lua scripts, so check-and-decrement is atomic
+ * inside Redis and needs no Postgres row lock. Every change also bumps the counter's
+ * sequence number, so write-backs to Postgres can be ordered ({@link Counter#seq()}).
+ * Counter scripts are observed ("redis.script"), so they show up in the ReserveSpot/ReleaseSpot spans.
+ */
+@Component
+public class HotInventoryStore {
+
+    private static final RedisScript<Long> RESERVE_SCRIPT =
+            RedisScript.of(new ClassPathResource(HotInventory.RESERVE_SCRIPT), Long.class);
+    private static final RedisScript<Long> RELEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource(HotInventory.RELEASE_SCRIPT), Long.class);
+    private static final RedisScript<Long> ACTIVATE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/hot-inventory-activate.lua"), Long.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> DEACTIVATE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/hot-inventory-deactivate.lua"), List.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> DRAIN_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/hot-inventory-drain.lua"), List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObservationRegistry observationRegistry;
+
+    public HotInventoryStore(StringRedisTemplate redisTemplate, ObservationRegistry observationRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.observationRegistry = observationRegistry;
+    }
+
+    /**
+     * Claim {@code seats} seats at once: either all of them or none
+     */
+    public HotInventory.Result tryReserve(long classId, int seats) {
+        return HotInventory.Result.fromScript(runCounterScript("hot-inventory-reserve", RESERVE_SCRIPT, classId, seats));
+    }
+
+    public HotInventory.Result tryRelease(long classId, int seats) {
+        return HotInventory.Result.fromScript(runCounterScript("hot-inventory-release", RELEASE_SCRIPT, classId, seats));
+    }
+
+    /**
+     * @return false if the class was already in hot inventory mode
+     */
+    public boolean activate(long classId, Counter counter) {
+        Long result = redisTemplate.execute(ACTIVATE_SCRIPT,
+                List.of(HotInventory.classKey(classId)),
+                String.valueOf(counter.available()), String.valueOf(counter.total()), String.valueOf(counter.seq()));
+        return result != null && result == 1;
+    }
+
+    /**
+     * @return the final counter, or empty if the class was not hot
+     */
+    public Optional<Counter> deactivate(long classId) {
+        List<?> result = Observation.createNotStarted("redis.script", observationRegistry)
+                .contextualName("redis hot-inventory-deactivate")
+                .lowCardinalityKeyValue("script", "hot-inventory-deactivate")
+                .observe(() -> redisTemplate.execute(DEACTIVATE_SCRIPT,
+                        List.of(HotInventory.classKey(classId), HotInventory.DIRTY_SET_KEY),
+                        String.valueOf(classId)));
+        return result == null || result.isEmpty() ? Optional.empty() : Optional.of(Counter.of(result, 0));
+    }
+
+    /**
+     * Pop up to {@code max} changed classes and read their counters, in one script:
+     * the pop and the read cannot interleave with a deactivation.
+     *
+     * @return classId -> counter (classes that went cold in between are skipped)
+     */
+    public Map<Long, Counter> drainDirty(int max) {
+        List<?> result = redisTemplate.execute(DRAIN_SCRIPT,
+                List.of(HotInventory.DIRTY_SET_KEY),
+                String.valueOf(max), HotInventory.CLASS_KEY_PREFIX);
+
+        Map<Long, Counter> counters = new LinkedHashMap<>();
+        if (result != null) {
+            for (int i = 0; i + 3 < result.size(); i += 4) {
+                counters.put(((Number) result.get(i)).longValue(), Counter.of(result, i + 1));
+            }
+        }
+        return counters;
+    }
+
+    /**
+     * Put a class back on the dirty set (e.g. when its write-behind failed)
+     */
+    public void markDirty(long classId) {
+        redisTemplate.opsForSet().add(HotInventory.DIRTY_SET_KEY, String.valueOf(classId));
+    }
+
+    /**
+     * A class's counter: available spots, total capacity and the sequence number of its last change
+     */
+    public record Counter(int available, int total, long seq) {
+
+        private static Counter of(List<?> values, int offset) {
+            return new Counter(((Number) values.get(offset)).intValue(),
+                    ((Number) values.get(offset + 1)).intValue(),
+                    ((Number) values.get(offset + 2)).longValue());
+        }
+    }
+
+    private Long runCounterScript(String name, RedisScript<Long> script, long classId, int seats) {
+        return Observation.createNotStarted("redis.script", observationRegistry)
+                .contextualName("redis " + name)
+                .lowCardinalityKeyValue("script", name)
+                .observe(() -> redisTemplate.execute(script,
+                        List.of(HotInventory.classKey(classId), HotInventory.DIRTY_SET_KEY),
+                        String.valueOf(classId), ClassCapacityChangedEvent.CHANNEL, String.valueOf(seats)));
+    }
+}
@@ -1,51 +1,80 @@
 package com.gym.classservice.infrastructure.redis;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.gym.classservice.application.events.BookingEventListener;
 import com.gym.shared.events.BookingCreatedEvent;
+import com.gym.shared.events.BookingEventCodec;
+import com.gym.shared.events.ClassCapacityChangedEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.listener.PatternTopic;
-import org.springframework.data.redis.listener.RedisMessageListenerContainer;
-import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 /**
- * Redis Configuration for Subscribing to Events
+ * Redis Configuration for consuming booking events (Redis Stream)
+ * and for broadcasting capacity changes
  */
 @Configuration
 public class RedisConfig {
 
-    public static final String BOOKING_CREATED_CHANNEL = "booking-created";
+    public static final String BOOKING_EVENTS_STREAM = BookingCreatedEvent.STREAM;
 
+    /**
+     * Stream access: String keys/fields, raw byte[] payloads
+     */
     @Bean
-    public RedisMessageListenerContainer redisMessageListenerContainer(
-            RedisConnectionFactory connectionFactory,
-            MessageListenerAdapter listenerAdapter) {
+    public RedisTemplate<String, byte[]> streamTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.setHashKeySerializer(new StringRedisSerializer());
+        template.setHashValueSerializer(RedisSerializer.byteArray());
 
-        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
-        container.setConnectionFactory(connectionFactory);
-        container.addMessageListener(listenerAdapter, new PatternTopic(BOOKING_CREATED_CHANNEL));
+        return template;
+    }
 
-        return container;
+    /**
+     * Booking events as JSON (entries without a content-type field, or producers still on JSON)
+     */
+    @Bean
+    public BookingEventCodec jsonBookingEventCodec() {
+        return BookingEventCodec.json(eventObjectMapper());
+    }
+
+    /**
+     * Booking events as protobuf (booking_events.proto)
+     */
+    @Bean
+    public BookingEventCodec protobufBookingEventCodec() {
+        return BookingEventCodec.protobuf();
     }
 
     @Bean
-    public MessageListenerAdapter listenerAdapter(BookingEventListener eventListener) {
-        MessageListenerAdapter adapter = new MessageListenerAdapter(eventListener, "handleBookingCreated");
+    public RedisTemplate<String, ClassCapacityChangedEvent> capacityEventTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, ClassCapacityChangedEvent> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(
+            new Jackson2JsonRedisSerializer<>(new ObjectMapper(), ClassCapacityChangedEvent.class));
 
-        // ObjectMapper that supports Java 8 date/time (e.g. Instant) for deserialization
+        return template;
+    }
+
+    /**
+     * ObjectMapper that supports Java 8 date/time (e.g. Instant)
+     * and tolerates fields added by newer producers
+     */
+    private static ObjectMapper eventObjectMapper() {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-
-        Jackson2JsonRedisSerializer<BookingCreatedEvent> serializer =
-            new Jackson2JsonRedisSerializer<>(objectMapper, BookingCreatedEvent.class);
-        adapter.setSerializer(serializer);
-
-        return adapter;
+        objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        return objectMapper;
     }
 }
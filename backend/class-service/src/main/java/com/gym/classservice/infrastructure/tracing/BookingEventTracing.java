@@ -0,0 +1,76 @@
+package com.gym.classservice.infrastructure.tracing;
+
+import com.gym.shared.events.BookingCreatedEvent;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.propagation.Propagator;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Infrastructure Layer: Continues each booking's trace in the event consumer
+ *
+ * Per trace context carried by the events (one per booking, or one per group booking),
+ * two spans join the booking's trace:
+ * - "booking-event in-flight": from the event's creation to now (outbox relay, stream, coalescing window)
+ * - "booking-event apply": the listener transaction that applies it (shared by the events of one class group)
+ */
+@Component
+public class BookingEventTracing {
+
+    private final Propagator propagator;
+
+    public BookingEventTracing(Propagator propagator) {
+        this.propagator = propagator;
+    }
+
+    /**
+     * Record the in-flight spans and start the apply spans; hand them to {@link #finish}
+     */
+    public List<Span> startApply(List<BookingCreatedEvent> events) {
+        Map<Map<String, String>, List<BookingCreatedEvent>> eventsByTrace = new LinkedHashMap<>();
+        for (BookingCreatedEvent event : events) {
+            if (event.getTraceContext() != null && !event.getTraceContext().isEmpty()) {
+                eventsByTrace.computeIfAbsent(event.getTraceContext(), context -> new ArrayList<>()).add(event);
+            }
+        }
+
+        List<Span> applySpans = new ArrayList<>();
+        eventsByTrace.forEach((traceContext, traced) -> {
+            BookingCreatedEvent event = traced.get(0);
+
+            if (event.getTimestamp() != null) {
+                propagator.extract(traceContext, Map::get)
+                        .name("booking-event in-flight")
+                        .kind(Span.Kind.CONSUMER)
+                        .tag("bookings", traced.size())
+                        .startTimestamp(TimeUnit.SECONDS.toMicros(event.getTimestamp().getEpochSecond())
+                                + TimeUnit.NANOSECONDS.toMicros(event.getTimestamp().getNano()), TimeUnit.MICROSECONDS)
+                        .start()
+                        .end();
+            }
+
+            applySpans.add(propagator.extract(traceContext, Map::get)
+                    .name("booking-event apply")
+                    .kind(Span.Kind.CONSUMER)
+                    .tag("class.id", event.getClassId())
+                    .tag("bookings", traced.size())
+                    .tag("group.size", events.size())
+                    .start());
+        });
+        return applySpans;
+    }
+
+    public void finish(List<Span> applySpans, Throwable failure) {
+        for (Span span : applySpans) {
+            if (failure != null) {
+                span.error(failure);
+            }
+            span.end();
+        }
+    }
+}
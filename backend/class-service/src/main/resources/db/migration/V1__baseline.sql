@@ -0,0 +1,19 @@
+-- Baseline: the schema as ddl-auto: update left it.
+-- Idempotent, so it also adopts databases that were created by Hibernate.
+
+CREATE TABLE IF NOT EXISTS classes (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name            VARCHAR(100) NOT NULL,
+    total_capacity  INTEGER      NOT NULL,
+    available_spots INTEGER      NOT NULL
+);
+
+-- Catalogue ETags: bumped by every change to the row
+ALTER TABLE classes ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Idempotency ledger of the booking event consumer
+CREATE TABLE IF NOT EXISTS processed_booking_events (
+    booking_id   BIGINT                   PRIMARY KEY,
+    class_id     BIGINT                   NOT NULL,
+    processed_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,3 @@
+-- Seats can never go negative or above the class size, whichever code path writes them
+ALTER TABLE classes
+    ADD CONSTRAINT ck_classes_available_spots CHECK (available_spots BETWEEN 0 AND total_capacity);
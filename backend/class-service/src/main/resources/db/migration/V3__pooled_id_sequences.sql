@@ -0,0 +1,7 @@
+-- IDENTITY column -> pooled sequence (allocationSize 50 in GymClass).
+-- Hibernate hands out the 50 ids below each nextval, so restart above the current max
+-- and keep INCREMENT BY in sync with allocationSize (checked at startup).
+
+ALTER TABLE classes ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS classes_id_seq INCREMENT BY 50;
+SELECT setval('classes_id_seq', COALESCE((SELECT max(id) FROM classes), 0) + 50);
@@ -0,0 +1,5 @@
+-- Hot inventory hand-over: while hot_inventory is set the Redis counter owns available_spots,
+-- and inventory_seq orders its write-backs (a flush older than the stored one is ignored).
+
+ALTER TABLE classes ADD COLUMN IF NOT EXISTS hot_inventory BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE classes ADD COLUMN IF NOT EXISTS inventory_seq BIGINT  NOT NULL DEFAULT 0;
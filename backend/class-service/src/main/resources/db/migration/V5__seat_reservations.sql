@@ -0,0 +1,12 @@
+-- Ledger of ReserveSpot calls that carry a request id: makes the RPC idempotent and lets
+-- ReleaseSpot give back exactly one claim. RELEASED rows also cancel a claim that never landed.
+CREATE TABLE IF NOT EXISTS seat_reservations (
+    request_id VARCHAR(64)                 PRIMARY KEY,
+    class_id   BIGINT                      NOT NULL,
+    seats      INTEGER                     NOT NULL,
+    status     VARCHAR(16)                 NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+-- Purge of expired rows
+CREATE INDEX IF NOT EXISTS idx_seat_reservations_created_at
+    ON seat_reservations (created_at);
@@ -0,0 +1,8 @@
+-- Load a class counter into Redis unless it is already hot
+-- KEYS[1] = class counter hash, ARGV[1] = available, ARGV[2] = total, ARGV[3] = sequence number of the row
+-- Returns 1 = activated, 0 = already in hot inventory mode
+if redis.call('EXISTS', KEYS[1]) == 1 then
+    return 0
+end
+redis.call('HSET', KEYS[1], 'available', ARGV[1], 'total', ARGV[2], 'seq', ARGV[3])
+return 1
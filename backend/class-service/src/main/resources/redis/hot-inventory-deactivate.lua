@@ -0,0 +1,11 @@
+-- Read the final counter and drop the class out of hot inventory mode atomically
+-- KEYS[1] = class counter hash, KEYS[2] = dirty set, ARGV[1] = class id
+-- Returns {available, total, seq}, or an empty list if the class was not hot.
+-- seq is one past the last change, so the final write-back wins over any flush still in flight.
+local counter = redis.call('HMGET', KEYS[1], 'available', 'total', 'seq')
+if not counter[1] then
+    return {}
+end
+redis.call('DEL', KEYS[1])
+redis.call('SREM', KEYS[2], ARGV[1])
+return {tonumber(counter[1]), tonumber(counter[2]), tonumber(counter[3] or '0') + 1}
@@ -0,0 +1,14 @@
+-- Pop up to ARGV[1] changed classes and read their counters in the same atomic step
+-- KEYS[1] = dirty set, ARGV[1] = max classes, ARGV[2] = class counter key prefix
+-- Returns a flat list of class id, available, total, seq (classes that went cold are skipped)
+local result = {}
+for _, classId in ipairs(redis.call('SPOP', KEYS[1], tonumber(ARGV[1]))) do
+    local counter = redis.call('HMGET', ARGV[2] .. classId, 'available', 'total', 'seq')
+    if counter[1] then
+        table.insert(result, tonumber(classId))
+        table.insert(result, tonumber(counter[1]))
+        table.insert(result, tonumber(counter[2]))
+        table.insert(result, tonumber(counter[3] or '0'))
+    end
+end
+return result
@@ -0,0 +1,200 @@
+package com.gym.classservice.application.inventory;
+
+import com.gym.classservice.infrastructure.persistence.SeatReservation;
+import com.gym.classservice.infrastructure.persistence.SeatReservationRepository;
+import com.gym.classservice.infrastructure.redis.ClassCatalogueVersion;
+import com.gym.classservice.infrastructure.redis.HotInventoryStore;
+import com.gym.shared.inventory.HotInventory;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reservation ledger against the Flyway schema on embedded Postgres: every ReserveSpot and
+ * ReleaseSpot request id moves seats at most once, whatever order and however often the
+ * calls arrive. The classes are cold (Redis answers NOT_HOT), so seats live in Postgres.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SeatReservationService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SeatReservationServiceTest {
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    private static final int CAPACITY = 10;
+
+    @Autowired
+    private SeatReservationService service;
+
+    @Autowired
+    private SeatReservationRepository reservationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private HotInventoryStore hotInventoryStore;
+
+    @MockitoBean
+    private ClassCatalogueVersion catalogueVersion;
+
+    private long classId;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        POSTGRES.close();
+    }
+
+    @BeforeEach
+    void coldClass() {
+        when(hotInventoryStore.tryReserve(anyLong(), anyInt())).thenReturn(HotInventory.Result.NOT_HOT);
+        when(hotInventoryStore.tryRelease(anyLong(), anyInt())).thenReturn(HotInventory.Result.NOT_HOT);
+        jdbcTemplate.update("DELETE FROM class_service.seat_reservations");
+        classId = jdbcTemplate.queryForObject(
+                "INSERT INTO class_service.classes (id, name, total_capacity, available_spots) " +
+                "VALUES (nextval('class_service.classes_id_seq'), 'Spin', ?, ?) RETURNING id",
+                Long.class, CAPACITY, CAPACITY);
+    }
+
+    @Test
+    void duplicateClaimIsAnsweredFromTheLedger() {
+        SeatReservationService.Outcome first = service.reserve(classId, 2, "claim-1");
+        SeatReservationService.Outcome retry = service.reserve(classId, 2, "claim-1");
+
+        assertThat(first.applied()).isTrue();
+        assertThat(first.replayed()).isFalse();
+        assertThat(retry.applied()).isTrue();
+        assertThat(retry.replayed()).isTrue();
+        assertThat(availableSpots()).isEqualTo(CAPACITY - 2);
+    }
+
+    @Test
+    void concurrentDuplicateClaimsTakeTheSeatsOnce() throws Exception {
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<SeatReservationService.Outcome>> outcomes = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                outcomes.add(executor.submit(() -> {
+                    start.await();
+                    return service.reserve(classId, 3, "claim-1");
+                }));
+            }
+            start.countDown();
+
+            int claimed = 0;
+            for (Future<SeatReservationService.Outcome> outcome : outcomes) {
+                SeatReservationService.Outcome result = outcome.get();
+                assertThat(result.applied()).isTrue();
+                claimed += result.replayed() ? 0 : 1;
+            }
+            assertThat(claimed).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(availableSpots()).isEqualTo(CAPACITY - 3);
+    }
+
+    @Test
+    void releaseBeforeTheClaimCancelsTheLateClaim() {
+        // The client's deadline expired before the claim arrived, so it released first
+        SeatReservationService.Outcome release = service.release(classId, 2, "claim-1");
+        SeatReservationService.Outcome lateClaim = service.reserve(classId, 2, "claim-1");
+
+        assertThat(release.applied()).isFalse();
+        assertThat(lateClaim.applied()).isFalse();
+        assertThat(lateClaim.replayed()).isTrue();
+        assertThat(reservationRepository.findStatus("claim-1")).contains(SeatReservation.RELEASED);
+        assertThat(availableSpots()).isEqualTo(CAPACITY);
+    }
+
+    @Test
+    void repeatedReleaseGivesTheSeatsBackOnce() {
+        service.reserve(classId, 2, "claim-1");
+        service.reserve(classId, 3, "claim-2");
+
+        SeatReservationService.Outcome first = service.release(classId, 2, "claim-1");
+        SeatReservationService.Outcome repeated = service.release(classId, 2, "claim-1");
+
+        assertThat(first.applied()).isTrue();
+        assertThat(repeated.applied()).isFalse();
+        assertThat(repeated.replayed()).isTrue();
+        // claim-2 still holds its seats
+        assertThat(availableSpots()).isEqualTo(CAPACITY - 3);
+    }
+
+    @Test
+    void failedClaimLeavesNoLedgerRowSoARetryIsEvaluatedAfresh() {
+        service.reserve(classId, CAPACITY, "full-house");
+
+        SeatReservationService.Outcome rejected = service.reserve(classId, 1, "claim-1");
+        assertThat(rejected.applied()).isFalse();
+        assertThat(rejected.replayed()).isFalse();
+        assertThat(reservationRepository.findStatus("claim-1")).isEmpty();
+
+        service.release(classId, CAPACITY, "full-house");
+        SeatReservationService.Outcome retry = service.reserve(classId, 1, "claim-1");
+        assertThat(retry.applied()).isTrue();
+        assertThat(retry.replayed()).isFalse();
+        assertThat(availableSpots()).isEqualTo(CAPACITY - 1);
+    }
+
+    @Test
+    void purgeForgetsOnlyRowsPastTheRetention() {
+        service.reserve(classId, 1, "old");
+        service.reserve(classId, 1, "recent");
+        jdbcTemplate.update("UPDATE class_service.seat_reservations " +
+                "SET created_at = now() - interval '2 hours' WHERE request_id = 'old'");
+
+        service.purgeExpired();
+
+        assertThat(reservationRepository.findStatus("old")).isEmpty();
+        assertThat(reservationRepository.findStatus("recent")).contains(SeatReservation.RESERVED);
+    }
+
+    private int availableSpots() {
+        return jdbcTemplate.queryForObject(
+                "SELECT available_spots FROM class_service.classes WHERE id = ?", Integer.class, classId);
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Embedded Postgres did not start", e);
+        }
+    }
+}
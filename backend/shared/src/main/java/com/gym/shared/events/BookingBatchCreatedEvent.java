@@ -0,0 +1,95 @@
+package com.gym.shared.events;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Domain Event: BookingBatchCreatedEvent
+ *
+ * Published by Booking Service (via its outbox) when a group booking commits:
+ * one event for all bookings of the group, which always share one class.
+ * Travels on the {@link BookingCreatedEvent#STREAM} stream with type {@link #TYPE};
+ * consumers expand it into one {@link BookingCreatedEvent} per booking.
+ */
+public class BookingBatchCreatedEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String TYPE = "BookingBatchCreated";
+
+    private Long classId;
+    /** Parallel lists: userNames.get(i) booked bookingIds.get(i) */
+    private List<Long> bookingIds;
+    private List<String> userNames;
+    private Instant timestamp;
+    /** Propagation headers of the creating request, see {@link BookingCreatedEvent#getTraceContext()} */
+    private Map<String, String> traceContext;
+
+    /** For Jackson/Redis deserialization (no-arg constructor required). */
+    public BookingBatchCreatedEvent() {
+    }
+
+    /** For creating the event when publishing (timestamp set to now). */
+    public BookingBatchCreatedEvent(Long classId, List<Long> bookingIds, List<String> userNames) {
+        this.classId = classId;
+        this.bookingIds = bookingIds;
+        this.userNames = userNames;
+        this.timestamp = Instant.now();
+    }
+
+    /**
+     * One BookingCreatedEvent per booking, all carrying this event's timestamp and trace context
+     */
+    public List<BookingCreatedEvent> toBookingEvents() {
+        List<BookingCreatedEvent> events = new ArrayList<>(bookingIds.size());
+        for (int i = 0; i < bookingIds.size(); i++) {
+            BookingCreatedEvent event = new BookingCreatedEvent(classId, bookingIds.get(i), userNames.get(i), timestamp);
+            event.setTraceContext(traceContext);
+            events.add(event);
+        }
+        return events;
+    }
+
+    public Long getClassId() {
+        return classId;
+    }
+
+    public void setClassId(Long classId) {
+        this.classId = classId;
+    }
+
+    public List<Long> getBookingIds() {
+        return bookingIds;
+    }
+
+    public void setBookingIds(List<Long> bookingIds) {
+        this.bookingIds = bookingIds;
+    }
+
+    public List<String> getUserNames() {
+        return userNames;
+    }
+
+    public void setUserNames(List<String> userNames) {
+        this.userNames = userNames;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public Map<String, String> getTraceContext() {
+        return traceContext;
+    }
+
+    public void setTraceContext(Map<String, String> traceContext) {
+        this.traceContext = traceContext;
+    }
+}
@@ -2,30 +2,39 @@ package com.gym.shared.events;
 
 import java.io.Serializable;
 import java.time.Instant;
+import java.util.Map;
 
 /**
  * Domain Event: BookingCreatedEvent
  *
- * Published by Booking Service when a new booking is created.
- * Consumed by Class Service to decrement available spots.
+ * Published by Booking Service (via its outbox) when a new booking is created.
+ * Consumed by Class Service.
  *
- * IMPORTANT LIMITATION:
- * - Spring ApplicationEvent only works within the same JVM (in-process)
- * - For distributed services, use a message broker:
- *   - Kafka (recommended for production)
- *   - RabbitMQ
- *   - Redis Pub/Sub
+ * Transport: Redis Stream with a consumer group, so every event is handled by
+ * exactly one Class Service instance and survives consumer downtime.
+ * The serialized event is stored in the {@link #PAYLOAD_FIELD} field of each entry,
+ * its type in {@link #TYPE_FIELD} (absent on entries written before types existed)
+ * and its encoding in {@link #CONTENT_TYPE_FIELD}, see {@link BookingEventCodec}.
+ * Group bookings travel as one {@link BookingBatchCreatedEvent}.
  *
- * For this demo, we accept this limitation.
+ * {@link #getTraceContext() traceContext} holds the propagation headers (W3C traceparent)
+ * of the request that created the booking, so the consumer's work joins that trace.
  */
 public class BookingCreatedEvent implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    public static final String STREAM = "booking-events";
+    public static final String PAYLOAD_FIELD = "payload";
+    public static final String TYPE_FIELD = "type";
+    public static final String CONTENT_TYPE_FIELD = "content-type";
+    public static final String TYPE = "BookingCreated";
+
     private Long classId;
     private Long bookingId;
     private String userName;
     private Instant timestamp;
+    private Map<String, String> traceContext;
 
     /** For Jackson/Redis deserialization (no-arg constructor required). */
     public BookingCreatedEvent() {
@@ -75,4 +84,12 @@ public class BookingCreatedEvent implements Serializable {
     public void setTimestamp(Instant timestamp) {
         this.timestamp = timestamp;
     }
+
+    public Map<String, String> getTraceContext() {
+        return traceContext;
+    }
+
+    public void setTraceContext(Map<String, String> traceContext) {
+        this.traceContext = traceContext;
+    }
 }
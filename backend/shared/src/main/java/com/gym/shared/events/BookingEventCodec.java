@@ -0,0 +1,163 @@
+package com.gym.shared.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.Timestamp;
+import com.gym.shared.events.proto.BookingBatchCreated;
+import com.gym.shared.events.proto.BookingCreated;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Wire format of the booking events on the {@link BookingCreatedEvent#STREAM} stream
+ *
+ * Each stream entry names its encoding in the {@link BookingCreatedEvent#CONTENT_TYPE_FIELD} field,
+ * so producers can switch encodings while consumers read both:
+ * - {@link #JSON}: Jackson, with the ObjectMapper of the service (entries without the field are JSON)
+ * - {@link #PROTOBUF}: the messages of booking_events.proto, smaller and cheaper to decode
+ */
+public final class BookingEventCodec {
+
+    public static final String JSON = "application/json";
+    public static final String PROTOBUF = "application/x-protobuf";
+
+    private final String contentType;
+    private final RedisSerializer<BookingCreatedEvent> bookingCreated;
+    private final RedisSerializer<BookingBatchCreatedEvent> bookingBatchCreated;
+
+    private BookingEventCodec(String contentType,
+                              RedisSerializer<BookingCreatedEvent> bookingCreated,
+                              RedisSerializer<BookingBatchCreatedEvent> bookingBatchCreated) {
+        this.contentType = contentType;
+        this.bookingCreated = bookingCreated;
+        this.bookingBatchCreated = bookingBatchCreated;
+    }
+
+    public static BookingEventCodec json(ObjectMapper objectMapper) {
+        return new BookingEventCodec(JSON,
+                new Jackson2JsonRedisSerializer<>(objectMapper, BookingCreatedEvent.class),
+                new Jackson2JsonRedisSerializer<>(objectMapper, BookingBatchCreatedEvent.class));
+    }
+
+    public static BookingEventCodec protobuf() {
+        return new BookingEventCodec(PROTOBUF,
+                new ProtobufSerializer<>(BookingEventCodec::toMessage, BookingEventCodec::parseBookingCreated),
+                new ProtobufSerializer<>(BookingEventCodec::toMessage, BookingEventCodec::parseBookingBatchCreated));
+    }
+
+    /** Value of the content-type field of the entries this codec writes */
+    public String contentType() {
+        return contentType;
+    }
+
+    public RedisSerializer<BookingCreatedEvent> bookingCreated() {
+        return bookingCreated;
+    }
+
+    public RedisSerializer<BookingBatchCreatedEvent> bookingBatchCreated() {
+        return bookingBatchCreated;
+    }
+
+    private static BookingCreated toMessage(BookingCreatedEvent event) {
+        BookingCreated.Builder message = BookingCreated.newBuilder()
+                .setClassId(event.getClassId())
+                .setBookingId(event.getBookingId())
+                .setUserName(event.getUserName());
+        if (event.getTimestamp() != null) {
+            message.setTimestamp(toTimestamp(event.getTimestamp()));
+        }
+        if (event.getTraceContext() != null) {
+            message.putAllTraceContext(event.getTraceContext());
+        }
+        return message.build();
+    }
+
+    private static BookingCreatedEvent parseBookingCreated(byte[] bytes) throws InvalidProtocolBufferException {
+        BookingCreated message = BookingCreated.parseFrom(bytes);
+        BookingCreatedEvent event = new BookingCreatedEvent(message.getClassId(), message.getBookingId(),
+                message.getUserName(), message.hasTimestamp() ? toInstant(message.getTimestamp()) : null);
+        event.setTraceContext(toTraceContext(message.getTraceContextMap()));
+        return event;
+    }
+
+    private static BookingBatchCreated toMessage(BookingBatchCreatedEvent event) {
+        BookingBatchCreated.Builder message = BookingBatchCreated.newBuilder()
+                .setClassId(event.getClassId())
+                .addAllBookingIds(event.getBookingIds())
+                .addAllUserNames(event.getUserNames());
+        if (event.getTimestamp() != null) {
+            message.setTimestamp(toTimestamp(event.getTimestamp()));
+        }
+        if (event.getTraceContext() != null) {
+            message.putAllTraceContext(event.getTraceContext());
+        }
+        return message.build();
+    }
+
+    private static BookingBatchCreatedEvent parseBookingBatchCreated(byte[] bytes) throws InvalidProtocolBufferException {
+        BookingBatchCreated message = BookingBatchCreated.parseFrom(bytes);
+        BookingBatchCreatedEvent event = new BookingBatchCreatedEvent();
+        event.setClassId(message.getClassId());
+        event.setBookingIds(message.getBookingIdsList());
+        event.setUserNames(message.getUserNamesList());
+        event.setTimestamp(message.hasTimestamp() ? toInstant(message.getTimestamp()) : null);
+        event.setTraceContext(toTraceContext(message.getTraceContextMap()));
+        return event;
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return Timestamp.newBuilder()
+                .setSeconds(instant.getEpochSecond())
+                .setNanos(instant.getNano())
+                .build();
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return Instant.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos());
+    }
+
+    /** An absent trace context stays null, as it does in JSON */
+    private static Map<String, String> toTraceContext(Map<String, String> traceContext) {
+        return traceContext.isEmpty() ? null : new HashMap<>(traceContext);
+    }
+
+    @FunctionalInterface
+    private interface Parser<T> {
+        T parse(byte[] bytes) throws InvalidProtocolBufferException;
+    }
+
+    private static final class ProtobufSerializer<T> implements RedisSerializer<T> {
+
+        private final Function<T, ? extends Message> toMessage;
+        private final Parser<T> parser;
+
+        ProtobufSerializer(Function<T, ? extends Message> toMessage, Parser<T> parser) {
+            this.toMessage = toMessage;
+            this.parser = parser;
+        }
+
+        @Override
+        public byte[] serialize(T value) {
+            return value == null ? new byte[0] : toMessage.apply(value).toByteArray();
+        }
+
+        @Override
+        public T deserialize(byte[] bytes) {
+            if (bytes == null || bytes.length == 0) {
+                return null;
+            }
+            try {
+                return parser.parse(bytes);
+            } catch (InvalidProtocolBufferException e) {
+                throw new SerializationException("Could not read protobuf booking event: " + e.getMessage(), e);
+            }
+        }
+    }
+}
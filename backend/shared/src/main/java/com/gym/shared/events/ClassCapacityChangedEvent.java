@@ -0,0 +1,55 @@
+package com.gym.shared.events;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.io.Serializable;
+
+/**
+ * Event: ClassCapacityChangedEvent
+ *
+ * Broadcast by Class Service (and by the hot inventory Lua scripts) when a class's
+ * availability changes in a way other services may have cached: a class sold out,
+ * or a spot came back. Consumed by Booking Service to invalidate its near-cache.
+ *
+ * availableSpots is null when the new value is not known to the publisher;
+ * consumers must then simply drop what they cached.
+ */
+public class ClassCapacityChangedEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String CHANNEL = "class-capacity-changed";
+
+    private Long classId;
+    private Integer availableSpots;
+
+    /** For Jackson/Redis deserialization (no-arg constructor required). */
+    public ClassCapacityChangedEvent() {
+    }
+
+    public ClassCapacityChangedEvent(Long classId, Integer availableSpots) {
+        this.classId = classId;
+        this.availableSpots = availableSpots;
+    }
+
+    public Long getClassId() {
+        return classId;
+    }
+
+    public void setClassId(Long classId) {
+        this.classId = classId;
+    }
+
+    public Integer getAvailableSpots() {
+        return availableSpots;
+    }
+
+    public void setAvailableSpots(Integer availableSpots) {
+        this.availableSpots = availableSpots;
+    }
+
+    @JsonIgnore
+    public boolean isSoldOut() {
+        return availableSpots != null && availableSpots <= 0;
+    }
+}
@@ -0,0 +1,55 @@
+package com.gym.shared.inventory;
+
+/**
+ * Hot Inventory: Redis-resident seat counters for flash class openings
+ *
+ * While a class is in hot inventory mode its available spots live in a Redis hash
+ * ({@code available}, {@code total}, {@code seq}) and are claimed by an atomic Lua script
+ * (decrement only if positive). Class Service writes the counter back to the
+ * {@code available_spots} column asynchronously (write-behind), so the hot path
+ * never takes a Postgres row lock. Every change bumps {@code seq}, which orders the write-backs.
+ *
+ * Shared by both services so key layout and scripts can never drift apart.
+ */
+public final class HotInventory {
+
+    /** Set of class ids whose counter changed since the last write-behind flush */
+    public static final String DIRTY_SET_KEY = "hot-inventory:dirty";
+
+    /**
+     * Classpath locations of the Lua scripts
+     * (KEYS[1] = class key, KEYS[2] = dirty set, ARGV[1] = class id, ARGV[2] = capacity-changed channel,
+     * ARGV[3] = number of seats, all or nothing, default 1).
+     * The scripts publish a ClassCapacityChangedEvent when a class sells out or a seat comes back.
+     */
+    public static final String RESERVE_SCRIPT = "redis/hot-inventory-reserve.lua";
+    public static final String RELEASE_SCRIPT = "redis/hot-inventory-release.lua";
+
+    public static final String CLASS_KEY_PREFIX = "hot-inventory:class:";
+
+    private HotInventory() {
+    }
+
+    public static String classKey(long classId) {
+        return CLASS_KEY_PREFIX + classId;
+    }
+
+    /**
+     * Outcome of a reserve/release script call
+     */
+    public enum Result {
+        /** Counter changed */
+        APPLIED,
+        /** Counter exists but the change would cross its bound (not enough seats / above total) */
+        REJECTED,
+        /** Class is not in hot inventory mode: caller must fall back to Postgres */
+        NOT_HOT;
+
+        public static Result fromScript(Long value) {
+            if (value == null || value < 0) {
+                return NOT_HOT;
+            }
+            return value == 1 ? APPLIED : REJECTED;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.gym.shared.metrics;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-method gRPC call timings, shared by both sides of the wire:
+ * registered as a server interceptor by Class Service and as a client interceptor by Booking Service.
+ *
+ * Timers "grpc.server.calls" / "grpc.client.calls", tagged with the full method name
+ * and the final status code, with percentile histograms.
+ */
+public class GrpcMetricsInterceptor implements ServerInterceptor, ClientInterceptor {
+
+    public static final String SERVER_TIMER = "grpc.server.calls";
+    public static final String CLIENT_TIMER = "grpc.client.calls";
+
+    private final MeterRegistry meterRegistry;
+
+    public GrpcMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call,
+                                                                 Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        String method = call.getMethodDescriptor().getFullMethodName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        // A call either closes or is cancelled by the client; record whichever comes first
+        AtomicBoolean recorded = new AtomicBoolean();
+
+        ServerCall<ReqT, RespT> timedCall = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                if (recorded.compareAndSet(false, true)) {
+                    sample.stop(timer(SERVER_TIMER, method, status.getCode()));
+                }
+                super.close(status, trailers);
+            }
+        };
+
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(next.startCall(timedCall, headers)) {
+            @Override
+            public void onCancel() {
+                if (recorded.compareAndSet(false, true)) {
+                    sample.stop(timer(SERVER_TIMER, method, Status.Code.CANCELLED));
+                }
+                super.onCancel();
+            }
+        };
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                               CallOptions callOptions,
+                                                               Channel next) {
+        return new ForwardingClientCall.SimpleForwardingClientCall<>(next.newCall(method, callOptions)) {
+            @Override
+            public void start(Listener<RespT> responseListener, Metadata headers) {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        sample.stop(timer(CLIENT_TIMER, method.getFullMethodName(), status.getCode()));
+                        super.onClose(status, trailers);
+                    }
+                }, headers);
+            }
+        };
+    }
+
+    private Timer timer(String name, String method, Status.Code status) {
+        return Timer.builder(name)
+                .description("gRPC call duration by method and status")
+                .tag("method", method)
+                .tag("status", status.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,80 @@
+package com.gym.shared.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads pinned to their carrier (JFR event jdk.VirtualThreadPinned, JDK 21+),
+ * e.g. blocking inside a {@code synchronized} section of the JDBC driver or Hibernate.
+ *
+ * Unlike {@code -Djdk.tracePinnedThreads}, this needs no JVM flag: it works however virtual
+ * threads were switched on (VIRTUAL_THREADS=true, -PvirtualThreads, spring.threads.virtual.enabled).
+ * Each pin at or above the threshold is logged with its top frames and counted in "jvm.threads.virtual.pinned".
+ */
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+
+    public static final String PINNED_COUNTER = "jvm.threads.virtual.pinned";
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final Duration threshold;
+    private final Counter pinned;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, Duration threshold) {
+        this.threshold = threshold;
+        this.pinned = Counter.builder(PINNED_COUNTER)
+                .description("Virtual threads pinned to their carrier for at least the reporting threshold")
+                .register(meterRegistry);
+    }
+
+    public synchronized void start() {
+        if (stream != null) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::report);
+        stream.startAsync();
+        log.info("Reporting virtual threads pinned for {} ms or longer", threshold.toMillis());
+    }
+
+    @Override
+    public synchronized void close() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    private void report(RecordedEvent event) {
+        pinned.increment();
+        log.warn("Virtual thread {} pinned to its carrier for {} ms at {}",
+                event.getThread() != null ? event.getThread().getJavaName() : "?",
+                event.getDuration().toMillis(), topFrames(event.getStackTrace()));
+    }
+
+    private static String topFrames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "(no stack trace)";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        return frames.stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining(" <- "));
+    }
+}
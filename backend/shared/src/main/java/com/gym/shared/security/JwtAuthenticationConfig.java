@@ -0,0 +1,52 @@
+package com.gym.shared.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Authentication of a service's REST API with auth-service access tokens (app.auth.enabled, opt-in)
+ *
+ * Imported by each service that authenticates requests; the service names its protected paths
+ * in app.auth.url-patterns (e.g. /bookings/*). Actuator endpoints stay open.
+ * Tokens are verified locally: no call to auth-service per request, only the background
+ * refresh of its public keys, started and stopped with the application context.
+ * With auth off, neither the verifier nor the filter exists.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.auth", name = "enabled", havingValue = "true")
+public class JwtAuthenticationConfig {
+
+    /**
+     * Position of the JWT filter in the servlet filter chain. A service's CorsFilter must be
+     * registered before it, so error responses carry CORS headers too.
+     */
+    public static final int FILTER_ORDER = Ordered.HIGHEST_PRECEDENCE + 100;
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public JwtVerifier jwtVerifier(@Value("${app.auth.jwks-uri:http://localhost:8083/auth/jwks.json}") String jwksUri,
+                                   @Value("${app.auth.issuer:auth-service}") String issuer,
+                                   @Value("${app.auth.jwks-refresh-ms:300000}") long refreshMs,
+                                   @Value("${app.auth.jwks-min-refresh-ms:30000}") long minRefreshMs,
+                                   @Value("${app.auth.claims-cache-size:10000}") long claimsCacheSize) {
+        return new JwtVerifier(URI.create(jwksUri), issuer,
+                Duration.ofMillis(refreshMs), Duration.ofMillis(minRefreshMs), claimsCacheSize);
+    }
+
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilter(
+            JwtVerifier jwtVerifier,
+            @Value("${app.auth.url-patterns}") String[] urlPatterns) {
+        FilterRegistrationBean<JwtAuthenticationFilter> registration =
+                new FilterRegistrationBean<>(new JwtAuthenticationFilter(jwtVerifier));
+        registration.addUrlPatterns(urlPatterns);
+        registration.setOrder(FILTER_ORDER);
+        return registration;
+    }
+}
@@ -0,0 +1,105 @@
+package com.gym.shared.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Requires "Authorization: Bearer <access token>" on every request it is mapped to,
+ * verified locally by {@link JwtVerifier}. Rejected requests get 401 with the usual
+ * error body; accepted ones expose the caller as {@code request.getUserPrincipal()}
+ * (a {@link JwtPrincipal}) and through {@code request.isUserInRole(..)}.
+ *
+ * CORS preflights pass without a token: browsers never send credentials with them,
+ * and the service's CorsFilter (registered before this one) answers them.
+ */
+public class JwtAuthenticationFilter extends HttpFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtVerifier verifier;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public JwtAuthenticationFilter(JwtVerifier verifier) {
+        this.verifier = verifier;
+    }
+
+    @Override
+    protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (isPreflight(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String header = request.getHeader("Authorization");
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            reject(response, "Missing bearer token");
+            return;
+        }
+
+        JwtPrincipal principal;
+        try {
+            principal = verifier.verify(header.substring(BEARER_PREFIX.length()));
+        } catch (JwtVerifier.InvalidTokenException e) {
+            reject(response, e.getMessage());
+            return;
+        }
+        chain.doFilter(new AuthenticatedRequest(request, principal), response);
+    }
+
+    private static boolean isPreflight(HttpServletRequest request) {
+        return "OPTIONS".equals(request.getMethod())
+                && request.getHeader("Origin") != null
+                && request.getHeader("Access-Control-Request-Method") != null;
+    }
+
+    private void reject(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setHeader("WWW-Authenticate", "Bearer");
+        response.setContentType("application/json");
+        objectMapper.writeValue(response.getOutputStream(), Map.of(
+                "error", "Unauthorized",
+                "message", message,
+                "timestamp", LocalDateTime.now().toString()));
+    }
+
+    private static final class AuthenticatedRequest extends HttpServletRequestWrapper {
+
+        private final JwtPrincipal principal;
+
+        AuthenticatedRequest(HttpServletRequest request, JwtPrincipal principal) {
+            super(request);
+            this.principal = principal;
+        }
+
+        @Override
+        public Principal getUserPrincipal() {
+            return principal;
+        }
+
+        @Override
+        public String getRemoteUser() {
+            return principal.getName();
+        }
+
+        @Override
+        public boolean isUserInRole(String role) {
+            return principal.hasRole(role);
+        }
+
+        @Override
+        public String getAuthType() {
+            return "Bearer";
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.gym.shared.security;
+
+import java.security.Principal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The caller of a request, as stated by a verified auth-service access token
+ *
+ * @param username  token subject
+ * @param roles     e.g. ROLE_USER, ROLE_ADMIN
+ * @param expiresAt when the token stops being accepted
+ */
+public record JwtPrincipal(String username, List<String> roles, Instant expiresAt) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public boolean hasRole(String role) {
+        return roles.contains(role.startsWith("ROLE_") ? role : "ROLE_" + role);
+    }
+}
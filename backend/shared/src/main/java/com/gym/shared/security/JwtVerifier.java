@@ -0,0 +1,219 @@
+package com.gym.shared.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies auth-service access tokens locally, without a call to auth-service per request
+ *
+ * - Keys: auth-service's public key set (JWKS) is fetched once and cached, then refreshed
+ *   in the background; a token signed with an unknown key id triggers an early refresh
+ *   (at most once per min-refresh-interval), so key rotation needs no restart
+ * - Claims cache: a token seen before is answered from a bounded cache, each entry
+ *   expiring together with its token, so repeat requests skip the RSA signature check
+ *
+ * Registered by each service that authenticates requests (see JwtAuthenticationFilter).
+ */
+public class JwtVerifier implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtVerifier.class);
+
+    private static final String TYPE_CLAIM = "typ";
+    private static final String ACCESS_TYPE = "access";
+    private static final String ROLES_CLAIM = "roles";
+
+    private final URI jwksUri;
+    private final Duration refreshInterval;
+    private final Duration minRefreshInterval;
+    private final HttpClient http;
+    private final JwtParser parser;
+    private final Cache<String, JwtPrincipal> principals;
+    private final ScheduledExecutorService refresher;
+
+    private volatile Map<String, PublicKey> keysById = Map.of();
+    private volatile long lastRefreshAttempt;
+
+    public JwtVerifier(URI jwksUri, String issuer, Duration refreshInterval,
+                       Duration minRefreshInterval, long claimsCacheSize) {
+        this.jwksUri = jwksUri;
+        this.refreshInterval = refreshInterval;
+        this.minRefreshInterval = minRefreshInterval;
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        this.parser = Jwts.parser()
+                .keyLocator(new KeyByIdLocator())
+                .requireIssuer(issuer)
+                .build();
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(claimsCacheSize)
+                .expireAfter(new UntilTokenExpiry())
+                .build();
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwks-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Load the key set now (a failure is logged; verification retries it) and keep it fresh
+     */
+    public void start() {
+        refreshKeys();
+        refresher.scheduleWithFixedDelay(this::refreshKeys,
+                refreshInterval.toMillis(), refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @throws InvalidTokenException for any token that must not be trusted
+     */
+    public JwtPrincipal verify(String token) {
+        JwtPrincipal cached = principals.getIfPresent(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidTokenException(e.getMessage());
+        }
+        if (!ACCESS_TYPE.equals(claims.get(TYPE_CLAIM, String.class))) {
+            throw new InvalidTokenException("Expected an access token");
+        }
+        if (claims.getExpiration() == null) {
+            throw new InvalidTokenException("No expiry");
+        }
+
+        JwtPrincipal principal = new JwtPrincipal(claims.getSubject(), roles(claims),
+                claims.getExpiration().toInstant());
+        principals.put(token, principal);
+        return principal;
+    }
+
+    /**
+     * Fetch the key set; keeps the previous keys if auth-service cannot be reached
+     */
+    public void refreshKeys() {
+        lastRefreshAttempt = System.currentTimeMillis();
+        try {
+            HttpResponse<String> response = http.send(
+                    HttpRequest.newBuilder(jwksUri).timeout(Duration.ofSeconds(5)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                log.warn("Fetching JWKS from {} answered {}, keeping {} cached keys",
+                        jwksUri, response.statusCode(), keysById.size());
+                return;
+            }
+
+            JwkSet keySet = Jwks.setParser().build().parse(response.body());
+            Map<String, PublicKey> keys = new HashMap<>();
+            for (Jwk<?> jwk : keySet.getKeys()) {
+                if (jwk.getId() != null && jwk.toKey() instanceof PublicKey publicKey) {
+                    keys.put(jwk.getId(), publicKey);
+                }
+            }
+            keysById = Map.copyOf(keys);
+            log.debug("Loaded {} signing keys from {}", keys.size(), jwksUri);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Fetching JWKS from {} failed, keeping {} cached keys: {}",
+                    jwksUri, keysById.size(), e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> roles(Claims claims) {
+        List<String> roles = claims.get(ROLES_CLAIM, List.class);
+        return roles == null ? List.of() : List.copyOf(roles);
+    }
+
+    /**
+     * A cached principal lives exactly as long as its token
+     */
+    private static final class UntilTokenExpiry implements Expiry<String, JwtPrincipal> {
+
+        @Override
+        public long expireAfterCreate(String token, JwtPrincipal principal, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), principal.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String token, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Signing key by the token's "kid"; an unknown kid may mean the keys rotated
+     */
+    private final class KeyByIdLocator extends LocatorAdapter<Key> {
+
+        @Override
+        protected Key locate(ProtectedHeader header) {
+            String keyId = header.getKeyId();
+            if (keyId == null) {
+                throw new InvalidTokenException("No key id");
+            }
+            PublicKey key = keysById.get(keyId);
+            if (key == null && System.currentTimeMillis() - lastRefreshAttempt >= minRefreshInterval.toMillis()) {
+                refreshKeys();
+                key = keysById.get(keyId);
+            }
+            if (key == null) {
+                throw new InvalidTokenException("Unknown signing key " + keyId);
+            }
+            return key;
+        }
+    }
+
+    /**
+     * Exception: Token is malformed, expired, badly signed or not an access token
+     */
+    public static class InvalidTokenException extends RuntimeException {
+        public InvalidTokenException(String reason) {
+            super("Invalid token: " + reason);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.gym.shared.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local span sink: appends every finished span to a file, one JSON object per line.
+ *
+ * No collector needed; a slow booking is followed across services by its traceId:
+ * {@code grep <traceId> traces/*.jsonl}
+ *
+ * Size-capped: once the file reaches maxFileBytes it is rotated (booking-service.jsonl ->
+ * booking-service.1.jsonl -> booking-service.2.jsonl ...) and only the newest maxFiles files are kept.
+ */
+public class JsonLinesSpanExporter implements SpanExporter {
+
+    private static final AttributeKey<String> SERVICE_NAME = AttributeKey.stringKey("service.name");
+
+    private final Path file;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * @param maxFileBytes size at which the file is rotated
+     * @param maxFiles     files kept, the current one included
+     */
+    public JsonLinesSpanExporter(Path file, long maxFileBytes, int maxFiles) {
+        if (maxFileBytes < 1 || maxFiles < 1) {
+            throw new IllegalArgumentException("Need maxFileBytes >= 1 and maxFiles >= 1");
+        }
+        this.file = file;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            if (Files.exists(file) && Files.size(file) >= maxFileBytes) {
+                rotate();
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (SpanData span : spans) {
+                    writer.write(objectMapper.writeValueAsString(toJson(span)));
+                    writer.newLine();
+                }
+            }
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    /**
+     * Shift every kept file one generation back; the oldest one beyond maxFiles is dropped
+     */
+    private void rotate() throws IOException {
+        Files.deleteIfExists(generation(maxFiles - 1));
+        for (int generation = maxFiles - 2; generation >= 0; generation--) {
+            Path source = generation(generation);
+            if (Files.exists(source)) {
+                Files.move(source, generation(generation + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /**
+     * The file itself for 0, otherwise name.{generation}.extension (still matched by *.jsonl)
+     */
+    private Path generation(int generation) {
+        if (generation == 0) {
+            return file;
+        }
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String rotated = dot > 0
+                ? name.substring(0, dot) + "." + generation + name.substring(dot)
+                : name + "." + generation;
+        return file.resolveSibling(rotated);
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private static Map<String, Object> toJson(SpanData span) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("traceId", span.getTraceId());
+        json.put("spanId", span.getSpanId());
+        json.put("parentSpanId", span.getParentSpanContext().isValid() ? span.getParentSpanId() : null);
+        json.put("service", span.getResource().getAttribute(SERVICE_NAME));
+        json.put("name", span.getName());
+        json.put("kind", span.getKind().name());
+        json.put("start", Instant.ofEpochSecond(0, span.getStartEpochNanos()).toString());
+        json.put("durationMs", TimeUnit.NANOSECONDS.toMicros(span.getEndEpochNanos() - span.getStartEpochNanos()) / 1000.0);
+        json.put("status", span.getStatus().getStatusCode().name());
+
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+        json.put("attributes", attributes);
+        return json;
+    }
+}
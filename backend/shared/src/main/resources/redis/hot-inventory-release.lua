@@ -0,0 +1,19 @@
+-- Give seats back: increment only while it stays within total capacity (all or nothing)
+-- KEYS[1] = class counter hash, KEYS[2] = dirty set
+-- ARGV[1] = class id, ARGV[2] = capacity-changed channel, ARGV[3] = seats (default 1)
+-- Returns 1 = released, 0 = would exceed total, -1 = class not in hot inventory mode
+local counter = redis.call('HMGET', KEYS[1], 'available', 'total')
+if not counter[1] then
+    return -1
+end
+local seats = tonumber(ARGV[3] or '1')
+if tonumber(counter[1]) + seats > tonumber(counter[2]) then
+    return 0
+end
+local available = redis.call('HINCRBY', KEYS[1], 'available', seats)
+redis.call('HINCRBY', KEYS[1], 'seq', 1)
+redis.call('SADD', KEYS[2], ARGV[1])
+if available == seats then
+    redis.call('PUBLISH', ARGV[2], cjson.encode({classId = tonumber(ARGV[1]), availableSpots = available}))
+end
+return 1
@@ -0,0 +1,19 @@
+-- Claim seats: decrement only if enough are left (all or nothing)
+-- KEYS[1] = class counter hash, KEYS[2] = dirty set
+-- ARGV[1] = class id, ARGV[2] = capacity-changed channel, ARGV[3] = seats (default 1)
+-- Returns 1 = reserved, 0 = not enough seats, -1 = class not in hot inventory mode
+local available = redis.call('HGET', KEYS[1], 'available')
+if not available then
+    return -1
+end
+local seats = tonumber(ARGV[3] or '1')
+if tonumber(available) < seats then
+    return 0
+end
+local remaining = redis.call('HINCRBY', KEYS[1], 'available', -seats)
+redis.call('HINCRBY', KEYS[1], 'seq', 1)
+redis.call('SADD', KEYS[2], ARGV[1])
+if remaining == 0 then
+    redis.call('PUBLISH', ARGV[2], cjson.encode({classId = tonumber(ARGV[1]), availableSpots = 0}))
+end
+return 1
@@ -1,5 +1,5 @@
 import axios, { AxiosResponse } from 'axios';
-import type { GymClass, Booking, CreateBookingPayload, CreateClassPayload } from './types/api';
+import type { GymClass, ClassPage, Booking, CreateBookingPayload, CreateClassPayload, WaitingRoomTicket } from './types/api';
 
 const classApiBase = 'http://localhost:8081';
 const bookingApiBase = 'http://localhost:8082';
@@ -7,18 +7,45 @@ const bookingApiBase = 'http://localhost:8082';
 const classApi = axios.create({ baseURL: classApiBase });
 const bookingApi = axios.create({ baseURL: bookingApiBase });
 
-export function getClasses(): Promise<AxiosResponse<GymClass[]>> {
-  return classApi.get<GymClass[]>('/classes');
+export function getClassPage(cursor?: string): Promise<AxiosResponse<ClassPage>> {
+  return classApi.get<ClassPage>('/classes', { params: { cursor } });
+}
+
+/** Walks all catalogue pages; unchanged pages are revalidated by the browser cache (ETag) */
+export async function getClasses(): Promise<GymClass[]> {
+  const classes: GymClass[] = [];
+  let cursor: string | undefined;
+  do {
+    const res = await getClassPage(cursor);
+    classes.push(...res.data.items);
+    cursor = res.data.nextCursor ?? undefined;
+  } while (cursor);
+  return classes;
 }
 
 export function getClass(id: string | number): Promise<AxiosResponse<GymClass>> {
   return classApi.get<GymClass>(`/classes/${id}`);
 }
 
-export function createBooking(
+/**
+ * Books a class, waiting in the class's virtual waiting room if it is busy:
+ * a 202 carries a queue ticket, which is sent back after retryAfterSeconds.
+ */
+export async function createBooking(
   payload: CreateBookingPayload
 ): Promise<AxiosResponse<Booking>> {
-  return bookingApi.post<Booking>('/bookings', payload);
+  let ticket: string | undefined;
+  for (;;) {
+    const res = await bookingApi.post<Booking | WaitingRoomTicket>('/bookings', payload, {
+      headers: ticket ? { 'X-Queue-Ticket': ticket } : undefined,
+    });
+    if (res.status !== 202) {
+      return res as AxiosResponse<Booking>;
+    }
+    const queued = res.data as WaitingRoomTicket;
+    ticket = queued.ticket;
+    await new Promise((resolve) => setTimeout(resolve, queued.retryAfterSeconds * 1000));
+  }
 }
 
 export function createClass(
@@ -16,9 +16,8 @@ export function useClasses(): UseClassesResult {
     setState({ status: 'loading' });
 
     try {
-      const res = await getClasses();
-      console.log(res)
-      setState({ status: 'success', data: res.data ?? [] });
+      const classes = await getClasses();
+      setState({ status: 'success', data: classes });
     } catch (err: unknown) {
       const error = err as { message?: string };
       const errorMessage = error.message ?? 'Failed to load classes';
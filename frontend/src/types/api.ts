@@ -6,12 +6,21 @@ export interface GymClass {
   availableSpots: number;
 }
 
+/** One page of the class catalogue; nextCursor is null on the last page */
+export interface ClassPage {
+  items: GymClass[];
+  nextCursor: string | null;
+}
+
 /** Booking from Booking Service API */
 export interface Booking {
   id: number;
   classId: number;
   userName: string;
   createdAt: string;
+  /** Present on listings when Class Service could be reached */
+  className?: string;
+  classAvailableSpots?: number;
 }
 
 /** Request body for creating a booking */
@@ -20,6 +29,13 @@ export interface CreateBookingPayload {
   userName: string;
 }
 
+/** 202 answer of POST /bookings while the class's waiting room is queueing */
+export interface WaitingRoomTicket {
+  ticket: string;
+  position: number;
+  retryAfterSeconds: number;
+}
+
 /** Request body for creating a gym class */
 export interface CreateClassPayload {
   name: string;